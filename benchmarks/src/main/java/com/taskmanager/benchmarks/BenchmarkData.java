@@ -0,0 +1,102 @@
+package com.taskmanager.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+
+/**
+ * Deterministic synthetic tasks and the embedded database settings shared by the benchmarks.
+ */
+final class BenchmarkData {
+    static final String[] PRIORITIES = { "High", "Medium", "Low" };
+
+    private static final int VOCABULARY_SIZE = 5000;
+    private static final String[] VOCABULARY = vocabulary(VOCABULARY_SIZE, 7L);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Points ConfigManager at a fresh in-memory H2 database. Must run before
+     * the first DatabaseService call in the JVM.
+     */
+    static void useEmbeddedDatabase() {
+        System.setProperty("db.profile", "h2-mem");
+        System.setProperty("hibernate.show_sql", "false");
+        System.setProperty("hibernate.format_sql", "false");
+    }
+
+    static String word(int index) {
+        return VOCABULARY[Math.floorMod(index, VOCABULARY_SIZE)];
+    }
+
+    /**
+     * Unsaved tasks for the user, oldest first, for inserting into the database.
+     */
+    static List<Task> newTasks(User user, int count, long seed) {
+        Random random = new Random(seed);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(new Task(title(random), description(random), priority(random), deadline(random),
+                random.nextInt(10) < 4, user));
+        }
+        return tasks;
+    }
+
+    /**
+     * Tasks with ids and creation times, newest first, as the dashboard list holds them.
+     */
+    static List<Task> loadedTasks(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime newest = LocalDateTime.of(2025, 1, 1, 12, 0);
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            tasks.add(Task.fromSummary(count - i, title(random), description(random), true, priority(random),
+                deadline(random), random.nextInt(10) < 4, newest.minusMinutes(i), null));
+        }
+        return tasks;
+    }
+
+    private static String title(Random random) {
+        return word(random.nextInt(VOCABULARY_SIZE)) + " " + word(random.nextInt(VOCABULARY_SIZE));
+    }
+
+    private static String description(Random random) {
+        StringBuilder description = new StringBuilder();
+        int words = 5 + random.nextInt(20);
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(word(random.nextInt(VOCABULARY_SIZE)));
+        }
+        return description.toString();
+    }
+
+    private static String priority(Random random) {
+        return PRIORITIES[random.nextInt(PRIORITIES.length)];
+    }
+
+    private static LocalDate deadline(Random random) {
+        return random.nextInt(4) == 0 ? null : LocalDate.now().plusDays(random.nextInt(61) - 30);
+    }
+
+    private static String[] vocabulary(int size, long seed) {
+        Random random = new Random(seed);
+        String[] words = new String[size];
+        for (int i = 0; i < size; i++) {
+            StringBuilder word = new StringBuilder();
+            int length = 3 + random.nextInt(7);
+            for (int j = 0; j < length; j++) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+        return words;
+    }
+}
@@ -0,0 +1,146 @@
+package com.taskmanager.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.entity.UserPreference;
+import com.taskmanager.service.DatabaseService;
+import com.taskmanager.service.TaskPage;
+import com.taskmanager.service.TaskQuery;
+import com.taskmanager.service.TaskStats;
+
+/**
+ * DatabaseService CRUD and list queries against an in-memory H2 database
+ * holding one user with {@code taskCount} tasks.
+ * {@code -p statementCacheSize=0} measures the same calls without the
+ * driver's statement cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DatabaseServiceBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int taskCount;
+
+    // db.statement_cache_size; 0 runs without the driver's statement cache
+    @Param({ "64" })
+    public int statementCacheSize;
+
+    private DatabaseService databaseService;
+    private User user;
+    private List<Task> tasks;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkData.useEmbeddedDatabase();
+        System.setProperty("db.statement_cache_size", String.valueOf(statementCacheSize));
+        databaseService = DatabaseService.getInstance();
+        user = databaseService.createUser("benchmark@example.com", "not-a-real-hash", "Benchmark");
+        tasks = databaseService.saveTasks(BenchmarkData.newTasks(user, taskCount, 42L));
+        databaseService.saveUserPreference(user.getId(), "defaultTaskPriority", "High");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        databaseService.close();
+    }
+
+    private Task nextTask() {
+        next = (next + 1) % tasks.size();
+        return tasks.get(next);
+    }
+
+    @Benchmark
+    public Task insertTask() {
+        return databaseService.saveTask(new Task("benchmark " + next++, "inserted by the benchmark", "Medium",
+            null, false, user));
+    }
+
+    @Benchmark
+    public Task toggleCompleted() {
+        Task task = nextTask();
+        task.setCompleted(!task.isCompleted());
+        return databaseService.updateTask(task);
+    }
+
+    @Benchmark
+    public Task editTitleAndPriority() {
+        Task task = nextTask();
+        task.setTitle(task.getTitle() + "!");
+        task.setPriority(BenchmarkData.PRIORITIES[next % BenchmarkData.PRIORITIES.length]);
+        return databaseService.updateTask(task);
+    }
+
+    @Benchmark
+    public TaskPage firstPage() {
+        return databaseService.getUserTasksPage(user.getId(), null, 200);
+    }
+
+    @Benchmark
+    public List<Task> allTasks() {
+        return databaseService.getUserTasks(user.getId());
+    }
+
+    @Benchmark
+    public List<Task> tasksByStatus() {
+        return databaseService.getUserTasksByStatus(user.getId(), false);
+    }
+
+    @Benchmark
+    public List<Task> findByTextAndPriority() {
+        return databaseService.findTasks(user.getId(),
+            new TaskQuery().text(BenchmarkData.word(next++)).priority("High"));
+    }
+
+    @Benchmark
+    public List<Task> findPendingByDeadline() {
+        return databaseService.findTasks(user.getId(),
+            new TaskQuery().completed(false).sortBy(TaskQuery.Sort.DEADLINE_ASC));
+    }
+
+    @Benchmark
+    public TaskStats taskStats() {
+        return databaseService.getTaskStats(user.getId());
+    }
+
+    @Benchmark
+    public User userById() {
+        return databaseService.getUserById(user.getId());
+    }
+
+    @Benchmark
+    public User userByEmail() {
+        return databaseService.findUserByEmail(user.getEmail());
+    }
+
+    @Benchmark
+    public String userPreference() {
+        return databaseService.getUserPreference(user.getId(), "defaultTaskPriority");
+    }
+
+    @Benchmark
+    public List<UserPreference> userPreferences() {
+        return databaseService.getUserPreferences(user.getId());
+    }
+}
@@ -0,0 +1,111 @@
+package com.taskmanager.benchmarks;
+
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.taskmanager.controller.TaskCellValues;
+import com.taskmanager.entity.Task;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.SimpleStringProperty;
+
+/**
+ * The cell work of one frame while scrolling the dashboard table through
+ * {@code taskCount} tasks: every visible row gets every column's value and the
+ * priority style, as the table does when the viewport moves by a page. Each
+ * invocation scrolls on from where the last one stopped.
+ *
+ * Runs without a display, so it measures the cell values and styling, not
+ * layout and painting. {@code frameBefore} is the previous implementation
+ * (a formatter and a property per date cell, an inline style per priority
+ * cell), kept for comparison; {@code gc.alloc.rate.norm} gives the bytes
+ * allocated per frame.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class TableScrollBenchmark {
+    private static final int VISIBLE_ROWS = 40;
+
+    @Param({ "100000" })
+    public int taskCount;
+
+    private List<Task> tasks;
+    private int firstRow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.loadedTasks(taskCount, 42L);
+    }
+
+    @Benchmark
+    public void frame(Blackhole blackhole) {
+        for (int row = nextPage(); row < firstRow + VISIBLE_ROWS; row++) {
+            Task task = tasks.get(row);
+            blackhole.consume(TaskCellValues.completed(task).getValue());
+            blackhole.consume(TaskCellValues.title(task).getValue());
+            blackhole.consume(TaskCellValues.description(task).getValue());
+            blackhole.consume(TaskCellValues.priority(task).getValue());
+            blackhole.consume(TaskCellValues.priorityStyleClass(task.getPriority()));
+            blackhole.consume(TaskCellValues.deadline(task).getValue());
+            blackhole.consume(TaskCellValues.created(task).getValue());
+        }
+    }
+
+    @Benchmark
+    public void frameBefore(Blackhole blackhole) {
+        for (int row = nextPage(); row < firstRow + VISIBLE_ROWS; row++) {
+            Task task = tasks.get(row);
+            blackhole.consume(new ReadOnlyObjectWrapper<>(task.isCompleted()).getValue());
+            blackhole.consume(new ReadOnlyObjectWrapper<>(task.getTitle()).getValue());
+            blackhole.consume(new ReadOnlyObjectWrapper<>(task.getDescription()).getValue());
+            blackhole.consume(new ReadOnlyObjectWrapper<>(task.getPriority()).getValue());
+            blackhole.consume(inlinePriorityStyle(task.getPriority()));
+            blackhole.consume(task.getDeadline() != null
+                ? new SimpleStringProperty(task.getDeadline().format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))).getValue()
+                : new SimpleStringProperty("").getValue());
+            blackhole.consume(task.getCreatedAt() != null
+                ? new SimpleStringProperty(task.getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, yyyy"))).getValue()
+                : new SimpleStringProperty("").getValue());
+        }
+    }
+
+    private int nextPage() {
+        firstRow += VISIBLE_ROWS;
+        if (firstRow + VISIBLE_ROWS > tasks.size()) {
+            firstRow = 0;
+        }
+        return firstRow;
+    }
+
+    private static String inlinePriorityStyle(String priority) {
+        switch (priority) {
+            case "High":
+                return "-fx-text-fill: #e74c3c; -fx-font-weight: bold;";
+            case "Medium":
+                return "-fx-text-fill: #f39c12; -fx-font-weight: bold;";
+            case "Low":
+                return "-fx-text-fill: #27ae60; -fx-font-weight: bold;";
+            default:
+                return "";
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.taskmanager.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.taskmanager.controller.TaskCellValues;
+import com.taskmanager.entity.Task;
+
+/**
+ * The dashboard table's cell value factories, measured per row: every column's
+ * value for one task, as the table computes them while scrolling.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskCellValuesBenchmark {
+    private static final int ROWS = 1000;
+
+    private List<Task> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.loadedTasks(ROWS, 42L);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void allColumns(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(TaskCellValues.completed(task).getValue());
+            blackhole.consume(TaskCellValues.title(task).getValue());
+            blackhole.consume(TaskCellValues.description(task).getValue());
+            blackhole.consume(TaskCellValues.priority(task).getValue());
+            blackhole.consume(TaskCellValues.deadline(task).getValue());
+            blackhole.consume(TaskCellValues.created(task).getValue());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void dateColumns(Blackhole blackhole) {
+        for (Task task : tasks) {
+            blackhole.consume(TaskCellValues.deadline(task).getValue());
+            blackhole.consume(TaskCellValues.created(task).getValue());
+        }
+    }
+}
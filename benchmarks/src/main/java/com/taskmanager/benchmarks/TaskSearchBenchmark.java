@@ -0,0 +1,88 @@
+package com.taskmanager.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.service.TaskQuery;
+import com.taskmanager.service.TaskSearchIndex;
+
+/**
+ * Text search as TaskController.queryTasks performs it with the search index
+ * enabled: an index lookup followed by the in-memory filters and sort.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskSearchBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int taskCount;
+
+    private List<Task> tasks;
+    private TaskSearchIndex index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.loadedTasks(taskCount, 42L);
+        index = new TaskSearchIndex();
+        index.rebuild(tasks);
+    }
+
+    private String nextWord() {
+        return BenchmarkData.word(next++);
+    }
+
+    @Benchmark
+    public List<Task> singleTerm() {
+        return index.search(nextWord());
+    }
+
+    @Benchmark
+    public List<Task> prefixTerm() {
+        return index.search(nextWord().substring(0, 2));
+    }
+
+    @Benchmark
+    public List<Task> twoTerms() {
+        return index.search(nextWord() + " " + nextWord().substring(0, 2));
+    }
+
+    @Benchmark
+    public List<Task> termWithFiltersAndSort() {
+        TaskQuery query = new TaskQuery().text(nextWord().substring(0, 3)).completed(false)
+            .sortBy(TaskQuery.Sort.DEADLINE_ASC);
+        List<Task> matching = index.search(query.getText()).stream()
+            .filter(query::matchesFilters)
+            .collect(Collectors.toList());
+        matching.sort(query.comparator());
+        return matching;
+    }
+
+    @Benchmark
+    @Warmup(iterations = 2)
+    @Measurement(iterations = 3)
+    public TaskSearchIndex rebuild() {
+        TaskSearchIndex fresh = new TaskSearchIndex();
+        fresh.rebuild(tasks);
+        return fresh;
+    }
+}
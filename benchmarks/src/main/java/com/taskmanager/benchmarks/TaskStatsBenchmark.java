@@ -0,0 +1,91 @@
+package com.taskmanager.benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.taskmanager.controller.TaskController;
+import com.taskmanager.controller.TaskStatsAggregator;
+import com.taskmanager.entity.Task;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+/**
+ * The dashboard stat counters of TaskController over a list of {@code taskCount}
+ * tasks, the cost of keeping them current, and a full list scan for comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TaskStatsBenchmark {
+
+    @Param({ "1000", "100000", "1000000" })
+    public int taskCount;
+
+    private List<Task> tasks;
+    private TaskController taskController;
+    private TaskStatsAggregator aggregator;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tasks = BenchmarkData.loadedTasks(taskCount, 42L);
+        // No user is logged in, so the controller never touches the database
+        taskController = new TaskController();
+        taskController.getTasks().setAll(tasks);
+        aggregator = new TaskStatsAggregator();
+        ObservableList<Task> list = FXCollections.observableArrayList();
+        list.addListener(aggregator);
+        list.setAll(tasks);
+    }
+
+    @Benchmark
+    public void statCounters(Blackhole blackhole) {
+        blackhole.consume(taskController.getTaskCount());
+        blackhole.consume(taskController.getCompletedTaskCount());
+        blackhole.consume(taskController.getPendingTaskCount());
+        blackhole.consume(taskController.getHighPriorityTaskCount());
+        blackhole.consume(taskController.getOverdueTaskCount());
+    }
+
+    @Benchmark
+    public Object toggleOneTask() {
+        Task task = tasks.get(next++ % tasks.size());
+        task.setCompleted(!task.isCompleted());
+        aggregator.refresh(task);
+        return aggregator.snapshot();
+    }
+
+    // The counting the dashboard did before the aggregator: one stream per counter
+    @Benchmark
+    public void fullScan(Blackhole blackhole) {
+        LocalDate today = LocalDate.now();
+        blackhole.consume(tasks.size());
+        blackhole.consume(tasks.stream().filter(Task::isCompleted).count());
+        blackhole.consume(tasks.stream().filter(task -> !task.isCompleted()).count());
+        blackhole.consume(tasks.stream()
+            .filter(task -> "High".equals(task.getPriority()) && !task.isCompleted())
+            .count());
+        blackhole.consume(tasks.stream()
+            .filter(task -> !task.isCompleted() && task.getDeadline() != null && task.getDeadline().isBefore(today))
+            .count());
+    }
+}
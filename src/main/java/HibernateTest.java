@@ -1,14 +1,19 @@
 import org.hibernate.Session;
 import org.hibernate.SessionFactory;
-import org.hibernate.cfg.Configuration;
+
+import com.taskmanager.util.HibernateUtil;
 
 public class HibernateTest {
     public static void main(String[] args) {
-        try (SessionFactory factory = new Configuration().configure().buildSessionFactory();
-             Session session = factory.openSession()) {
-            System.out.println("✅ Hibernate connected successfully!");
+        try {
+            SessionFactory factory = HibernateUtil.getSessionFactory();
+            try (Session session = factory.openSession()) {
+                System.out.println("✅ Hibernate connected successfully!");
+            }
         } catch (Exception e) {
             e.printStackTrace();
+        } finally {
+            HibernateUtil.shutdown();
         }
     }
-}
\ No newline at end of file
+}
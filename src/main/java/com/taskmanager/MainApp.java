@@ -2,19 +2,37 @@ package com.taskmanager;
 
 import com.taskmanager.config.ConfigManager;
 import com.taskmanager.controller.SceneRouter;
+import com.taskmanager.service.AsyncDatabaseService;
 import com.taskmanager.service.DatabaseService;
+import com.taskmanager.service.LastLoginRecorder;
+import com.taskmanager.service.TaskSyncEngine;
+import com.taskmanager.service.TaskWriteBehind;
 import javafx.application.Application;
 import javafx.stage.Stage;
 
 public class MainApp extends Application {
 
+    // The preloader is gone once start() runs
+    private volatile boolean started;
+
+    @Override
+    public void init() {
+        // Runs on the launcher thread while the preloader shows
+        notifyPreloader(new Preloader.StatusNotification("Loading configuration"));
+        ConfigManager.getInstance().printConfigStatus();
+        
+        // The database and the other views are prepared in the background while the login screen shows
+        StartupOrchestrator.getInstance().start(phase -> {
+            if (!started) {
+                notifyPreloader(phase);
+            }
+        });
+    }
+
     @Override
     public void start(Stage primaryStage) {
+        started = true;
         try {
-            // Initialize configuration
-            ConfigManager configManager = ConfigManager.getInstance();
-            configManager.printConfigStatus();
-            
             // Initialize database service
             DatabaseService databaseService = DatabaseService.getInstance();
             
@@ -33,14 +51,22 @@ public class MainApp extends Application {
 
     @Override
     public void stop() throws Exception {
-        // Clean up resources when application is closed
+        // Clean up resources when application is closed; buffered task edits are written first
+        SceneRouter.getInstance().shutdown();
+        TaskWriteBehind.shutdownIfStarted();
+        if (ConfigManager.getInstance().isLocalFirstEnabled()) {
+            TaskSyncEngine.getInstance().shutdown(); // unsynced edits stay in the journal
+        }
+        LastLoginRecorder.getInstance().shutdown();
+        AsyncDatabaseService.getInstance().shutdown();
+        StartupOrchestrator.getInstance().shutdown();
         DatabaseService.getInstance().close();
         super.stop();
     }
 
     public static void main(String[] args) {
-        // Set system properties for better performance
-        System.setProperty("javafx.preloader", "com.taskmanager.Preloader");
+        StartupOrchestrator.markLaunch();
+        System.setProperty("javafx.preloader", Preloader.class.getName());
         
         // Launch the JavaFX application
         launch(args);
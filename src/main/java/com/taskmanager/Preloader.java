@@ -0,0 +1,76 @@
+package com.taskmanager;
+
+import com.taskmanager.StartupOrchestrator.PhaseNotification;
+
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressBar;
+import javafx.scene.layout.VBox;
+import javafx.stage.Stage;
+import javafx.stage.StageStyle;
+
+/**
+ * Splash window shown from JavaFX startup until MainApp.start() shows the
+ * login screen. Styled inline so it needs no stylesheet of its own.
+ * Registered through the javafx.preloader system property in MainApp.main().
+ */
+public class Preloader extends javafx.application.Preloader {
+    private Stage stage;
+    private ProgressBar progress;
+    private Label status;
+
+    @Override
+    public void start(Stage stage) {
+        this.stage = stage;
+        Label title = new Label("Task Manager");
+        title.setStyle("-fx-font-size: 20px; -fx-font-weight: bold; -fx-text-fill: white;");
+        progress = new ProgressBar(-1);
+        progress.setPrefWidth(260);
+        status = new Label("Starting...");
+        status.setStyle("-fx-text-fill: rgba(255,255,255,0.7);");
+
+        VBox root = new VBox(14, title, progress, status);
+        root.setAlignment(Pos.CENTER);
+        root.setPadding(new Insets(30));
+        root.setStyle("-fx-background-color: linear-gradient(from 0% 0% to 100% 0%, #0b1b2b 0%, #153041 100%);");
+
+        stage.initStyle(StageStyle.UNDECORATED);
+        stage.setScene(new Scene(root, 360, 180));
+        stage.centerOnScreen();
+        stage.show();
+    }
+
+    @Override
+    public void handleApplicationNotification(PreloaderNotification info) {
+        if (info instanceof PhaseNotification) {
+            PhaseNotification phase = (PhaseNotification) info;
+            progress.setProgress(phase.getProgress());
+            status.setText("Loaded " + phase.getPhase());
+        } else if (info instanceof StatusNotification) {
+            status.setText(((StatusNotification) info).getMessage());
+        }
+    }
+
+    @Override
+    public void handleStateChangeNotification(StateChangeNotification info) {
+        // The login screen is about to show; startup continues behind it
+        if (info.getType() == StateChangeNotification.Type.BEFORE_START) {
+            stage.hide();
+        }
+    }
+
+    /**
+     * A line of text for the splash window.
+     */
+    public static class StatusNotification implements PreloaderNotification {
+        private final String message;
+
+        public StatusNotification(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() { return message; }
+    }
+}
@@ -0,0 +1,159 @@
+package com.taskmanager;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import com.taskmanager.config.ConfigManager;
+import com.taskmanager.controller.SceneRouter;
+import com.taskmanager.util.HibernateUtil;
+
+import javafx.application.Platform;
+import javafx.application.Preloader.PreloaderNotification;
+import javafx.fxml.FXMLLoader;
+
+/**
+ * Startup work that the login screen does not need, run in parallel while it
+ * shows. The database phase builds the SessionFactory (including the schema
+ * update) and is followed by warming the connection pool. The views phase
+ * loads the other FXML views off the FX thread, followed by the styles phase,
+ * which applies the CSS to them on the FX thread. Each phase is timed.
+ *
+ * A phase that fails is logged and left to happen lazily; e.g. a login while
+ * the database is down builds the SessionFactory again on first use.
+ */
+public class StartupOrchestrator {
+    public static final String DATABASE = "database";
+    public static final String CONNECTION_POOL = "connection pool";
+    public static final String VIEWS = "views";
+    public static final String STYLES = "styles";
+    private static final int PHASES = 4;
+
+    /**
+     * Sent to the preloader as phases complete.
+     */
+    public static class PhaseNotification implements PreloaderNotification {
+        private final String phase;
+        private final double progress;
+
+        PhaseNotification(String phase, double progress) {
+            this.phase = phase;
+            this.progress = progress;
+        }
+
+        public String getPhase() { return phase; }
+        public double getProgress() { return progress; }
+    }
+
+    private static StartupOrchestrator instance;
+
+    // Set by MainApp before the JavaFX launch
+    private static volatile long launchNanos = System.nanoTime();
+
+    private final ExecutorService executor;
+    private final Map<String, Long> timings = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile CompletableFuture<Void> done;
+
+    private StartupOrchestrator() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "startup-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized StartupOrchestrator getInstance() {
+        if (instance == null) {
+            instance = new StartupOrchestrator();
+        }
+        return instance;
+    }
+
+    static void markLaunch() {
+        launchNanos = System.nanoTime();
+    }
+
+    /**
+     * Starts all phases and returns at once. The listener receives a
+     * notification per finished phase, on the thread that finished it.
+     * The returned future completes when every phase has finished or failed.
+     */
+    public synchronized CompletableFuture<Void> start(Consumer<PhaseNotification> listener) {
+        if (done != null) {
+            return done;
+        }
+        ConfigManager config = ConfigManager.getInstance();
+
+        CompletableFuture<Boolean> database = CompletableFuture.supplyAsync(
+            () -> runPhase(DATABASE, HibernateUtil::getSessionFactory, listener), executor);
+        CompletableFuture<Boolean> pool = database.thenApplyAsync(built -> built && runPhase(CONNECTION_POOL,
+            () -> HibernateUtil.warmConnectionPool(Math.min(config.getPoolMinIdle(), config.getHibernatePoolSize())),
+            listener), executor);
+
+        List<FXMLLoader> views = new ArrayList<>();
+        CompletableFuture<Boolean> loaded = CompletableFuture.supplyAsync(() -> runPhase(VIEWS, () -> {
+            for (String fxml : SceneRouter.PRELOADED_VIEWS) {
+                try {
+                    views.add(SceneRouter.loadView(fxml));
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to load " + fxml + ": " + e.getMessage(), e);
+                }
+            }
+        }, listener), executor);
+        CompletableFuture<Boolean> styled = loaded.thenApplyAsync(ok -> ok && runPhase(STYLES, () -> {
+            SceneRouter router = SceneRouter.getInstance();
+            for (int i = 0; i < views.size(); i++) {
+                router.addPreloadedView(SceneRouter.PRELOADED_VIEWS.get(i), views.get(i));
+            }
+        }, listener), Platform::runLater);
+
+        done = CompletableFuture.allOf(pool, styled).thenRun(() -> System.out.println(describe()));
+        return done;
+    }
+
+    private boolean runPhase(String phase, Runnable work, Consumer<PhaseNotification> listener) {
+        long start = System.nanoTime();
+        boolean succeeded;
+        try {
+            work.run();
+            succeeded = true;
+        } catch (RuntimeException e) {
+            System.err.println("Startup phase '" + phase + "' failed: " + e.getMessage());
+            succeeded = false;
+        }
+        timings.put(phase, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        listener.accept(new PhaseNotification(phase, (double) completed.incrementAndGet() / PHASES));
+        return succeeded;
+    }
+
+    /**
+     * Milliseconds taken by each finished phase, in the order they finished.
+     */
+    public Map<String, Long> getTimings() {
+        synchronized (timings) {
+            return new LinkedHashMap<>(timings);
+        }
+    }
+
+    public String describe() {
+        StringBuilder text = new StringBuilder("Startup timings:");
+        getTimings().forEach((phase, millis) -> text.append(' ').append(phase).append(' ').append(millis).append("ms,"));
+        return text.append(" ready after ")
+            .append(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launchNanos)).append("ms").toString();
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
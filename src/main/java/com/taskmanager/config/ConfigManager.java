@@ -5,6 +5,10 @@ import java.io.InputStream;
 import java.util.Properties;
 
 public class ConfigManager {
+    public static final String PROFILE_ORACLE = "oracle";
+    public static final String PROFILE_H2_MEM = "h2-mem";
+    public static final String PROFILE_H2_FILE = "h2-file";
+    
     private static ConfigManager instance;
     private Properties properties;
     
@@ -30,42 +34,252 @@ public class ConfigManager {
         }
     }
     
+    // Database profile: oracle (default), h2-mem or h2-file (embedded, no server needed).
+    // The profile only supplies defaults; explicitly set db.* and hibernate.* keys still win.
+    public String getDbProfile() {
+        String profile = getProperty("db.profile", PROFILE_ORACLE).trim().toLowerCase();
+        if (!profile.equals(PROFILE_ORACLE) && !profile.equals(PROFILE_H2_MEM) && !profile.equals(PROFILE_H2_FILE)) {
+            throw new IllegalStateException("Unknown db.profile '" + profile + "' (expected "
+                + PROFILE_ORACLE + ", " + PROFILE_H2_MEM + " or " + PROFILE_H2_FILE + ")");
+        }
+        return profile;
+    }
+    
+    public boolean isEmbeddedDatabase() {
+        return !getDbProfile().equals(PROFILE_ORACLE);
+    }
+    
+    // Database file of the h2-file profile (H2 appends .mv.db)
+    public String getH2FilePath() {
+        return getProperty("db.h2.path", System.getProperty("user.home") + "/.taskmanager/taskmanager");
+    }
+    
     public String getDbUrl() {
-        return getProperty("db.url", "jdbc:oracle:thin:@localhost:1521:xe");
+        switch (getDbProfile()) {
+            case PROFILE_H2_MEM:
+                return getProperty("db.url", "jdbc:h2:mem:taskmanager;DB_CLOSE_DELAY=-1");
+            case PROFILE_H2_FILE:
+                return getProperty("db.url", "jdbc:h2:file:" + getH2FilePath());
+            default:
+                return getProperty("db.url", "jdbc:oracle:thin:@localhost:1521:xe");
+        }
     }
     
     public String getDbUsername() {
-        return getProperty("db.username", "system");
+        return getProperty("db.username", isEmbeddedDatabase() ? "sa" : "system");
     }
     
     public String getDbPassword() {
-        return getProperty("db.password", "Meenakshi@10");
+        return getProperty("db.password", isEmbeddedDatabase() ? "" : "Meenakshi@10");
     }
     
     public String getDbDriver() {
-        return getProperty("db.driver", "oracle.jdbc.driver.OracleDriver");
+        return getProperty("db.driver", isEmbeddedDatabase() ? "org.h2.Driver" : "oracle.jdbc.driver.OracleDriver");
     }
     
     public String getHibernateDialect() {
-        return getProperty("hibernate.dialect", "org.hibernate.community.dialect.Oracle12cDialect");
+        return getProperty("hibernate.dialect", isEmbeddedDatabase()
+            ? "org.hibernate.dialect.H2Dialect"
+            : "org.hibernate.community.dialect.Oracle12cDialect");
     }
     
+    // The embedded profiles create their schema from sql/create_schema_h2.sql instead
     public String getHibernateHbm2ddl() {
-        return getProperty("hibernate.hbm2ddl.auto", "update");
+        return getProperty("hibernate.hbm2ddl.auto", isEmbeddedDatabase() ? "none" : "update");
     }
     
     public boolean isHibernateShowSql() {
-        return Boolean.parseBoolean(getProperty("hibernate.show_sql", "true"));
+        return Boolean.parseBoolean(getProperty("hibernate.show_sql", "false"));
     }
     
     public boolean isHibernateFormatSql() {
-        return Boolean.parseBoolean(getProperty("hibernate.format_sql", "true"));
+        return Boolean.parseBoolean(getProperty("hibernate.format_sql", "false"));
     }
     
     public int getHibernatePoolSize() {
         return Integer.parseInt(getProperty("hibernate.connection.pool_size", "10"));
     }
     
+    // Connection pool (the maximum size is hibernate.connection.pool_size)
+    public int getPoolMinIdle() {
+        return Integer.parseInt(getProperty("db.pool.min_idle", "2"));
+    }
+    
+    public long getPoolConnectionTimeoutMs() {
+        return Long.parseLong(getProperty("db.pool.connection_timeout_ms", "30000"));
+    }
+    
+    public long getPoolValidationTimeoutMs() {
+        return Long.parseLong(getProperty("db.pool.validation_timeout_ms", "5000"));
+    }
+    
+    public long getPoolIdleTimeoutMs() {
+        return Long.parseLong(getProperty("db.pool.idle_timeout_ms", "600000"));
+    }
+    
+    public long getPoolMaxLifetimeMs() {
+        return Long.parseLong(getProperty("db.pool.max_lifetime_ms", "1800000"));
+    }
+    
+    public long getPoolLeakDetectionThresholdMs() {
+        return Long.parseLong(getProperty("db.pool.leak_detection_threshold_ms", "60000"));
+    }
+    
+    // Prepared statements the driver keeps open per connection (0 disables)
+    public int getStatementCacheSize() {
+        return Integer.parseInt(getProperty("db.statement_cache_size", "64"));
+    }
+    
+    // Slow query log: statements over the threshold go to a rolling file, written in the background
+    public boolean isSlowQueryLogEnabled() {
+        return Boolean.parseBoolean(getProperty("db.slow_query.enabled", "true"));
+    }
+    
+    public long getSlowQueryThresholdMs() {
+        return Long.parseLong(getProperty("db.slow_query.threshold_ms", "200"));
+    }
+    
+    // Share of connection checkouts whose statements are timed, from 0.0 to 1.0; the rest are not wrapped
+    public double getSlowQuerySampleRate() {
+        return Double.parseDouble(getProperty("db.slow_query.sample_rate", "0.01"));
+    }
+    
+    public String getSlowQueryLogPath() {
+        return getProperty("db.slow_query.log_path", System.getProperty("user.home") + "/.taskmanager/slow-queries.log");
+    }
+    
+    public int getSlowQueryMaxFileSizeKb() {
+        return Integer.parseInt(getProperty("db.slow_query.max_file_size_kb", "10240"));
+    }
+    
+    public int getSlowQueryMaxFiles() {
+        return Integer.parseInt(getProperty("db.slow_query.max_files", "5"));
+    }
+    
+    // Number of statements grouped into one JDBC batch; keep in step with the
+    // sequence INCREMENT BY (allocationSize) used by the entities. 0 turns
+    // batching off in Hibernate; it is read as 1, a flush after every statement
+    public int getJdbcBatchSize() {
+        return Math.max(1, Integer.parseInt(getProperty("hibernate.jdbc.batch_size", "50")));
+    }
+    
+    public String getIdOptimizer() {
+        return getProperty("hibernate.id.optimizer.pooled.preferred", "pooled-lo");
+    }
+    
+    // Dashboard keyset paging: rows fetched per page and the most rows kept in memory
+    public boolean isTaskPagingEnabled() {
+        return Boolean.parseBoolean(getProperty("ui.paging.enabled", "true"));
+    }
+    
+    public int getTaskPageSize() {
+        return Integer.parseInt(getProperty("ui.paging.page_size", "200"));
+    }
+    
+    public int getTaskWindowSize() {
+        return Integer.parseInt(getProperty("ui.paging.window_size", "1000"));
+    }
+    
+    // Characters of the description read by list queries; the full text is loaded for editing.
+    // At most 1000: the preview is a VARCHAR2, 4000 bytes on Oracle, and a character takes up to 4
+    public int getDescriptionPreviewLength() {
+        return Math.min(1000, Integer.parseInt(getProperty("ui.description_preview_length", "200")));
+    }
+    
+    public boolean isSearchIndexEnabled() {
+        return Boolean.parseBoolean(getProperty("search.index.enabled", "true"));
+    }
+    
+    // Idle time after the last keystroke before a search runs
+    public long getSearchDebounceMs() {
+        return Long.parseLong(getProperty("search.debounce_ms", "250"));
+    }
+    
+    // Task edits such as completion toggles are buffered and written together after this delay
+    public boolean isWriteBehindEnabled() {
+        return Boolean.parseBoolean(getProperty("write_behind.enabled", "true"));
+    }
+    
+    public long getWriteBehindDelayMs() {
+        return Long.parseLong(getProperty("write_behind.delay_ms", "500"));
+    }
+    
+    // Local-first mode: task edits go to a local journal first and are synced in the background
+    public boolean isLocalFirstEnabled() {
+        return Boolean.parseBoolean(getProperty("sync.local_first", "false"));
+    }
+    
+    public String getSyncJournalPath() {
+        return getProperty("sync.journal_path", System.getProperty("user.home") + "/.taskmanager/journal.dat");
+    }
+    
+    public long getSyncIntervalMs() {
+        return Long.parseLong(getProperty("sync.interval_ms", "1000"));
+    }
+    
+    public int getSyncBatchSize() {
+        return Math.max(1, Integer.parseInt(getProperty("sync.batch_size", "200")));
+    }
+    
+    // Longest wait between attempts while the database is unreachable
+    public long getSyncMaxBackoffMs() {
+        return Long.parseLong(getProperty("sync.max_backoff_ms", "60000"));
+    }
+    
+    // Background refresh of the task list with only the rows changed since the last read; 0 turns it off
+    public long getRefreshIntervalMs() {
+        return Long.parseLong(getProperty("refresh.interval_ms", "30000"));
+    }
+    
+    // Delta reads start this long before the last read, covering edits stamped before that
+    // read but committed while it ran. Stamps come from the database clock, so this must
+    // exceed the longest task write transaction, not the clock skew between clients
+    public long getRefreshOverlapMs() {
+        return Long.parseLong(getProperty("refresh.overlap_ms", "5000"));
+    }
+    
+    // Deleted-task records older than this are pruned; a client that last read before then reloads everything
+    public int getTombstoneRetentionDays() {
+        return Integer.parseInt(getProperty("refresh.tombstone_retention_days", "30"));
+    }
+    
+    // Password hashing: PBKDF2 work factor and the threads allowed to hash at once
+    public int getPasswordHashIterations() {
+        return Integer.parseInt(getProperty("security.pbkdf2_iterations", "210000"));
+    }
+    
+    public int getPasswordHashThreads() {
+        int defaultThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return Integer.parseInt(getProperty("security.hash_threads", String.valueOf(defaultThreads)));
+    }
+    
+    public long getLastLoginFlushDelayMs() {
+        return Long.parseLong(getProperty("login.last_login_flush_ms", "2000"));
+    }
+    
+    // Second-level cache for users and preferences; sizes are entries per region
+    public boolean isCacheEnabled() {
+        return Boolean.parseBoolean(getProperty("cache.enabled", "true"));
+    }
+    
+    public long getCacheMaxEntries() {
+        return Long.parseLong(getProperty("cache.max_entries", "1000"));
+    }
+    
+    public long getCacheTtlSeconds() {
+        return Long.parseLong(getProperty("cache.ttl_seconds", "600"));
+    }
+    
+    public boolean isCacheStatisticsEnabled() {
+        return Boolean.parseBoolean(getProperty("cache.statistics", "true"));
+    }
+    
+    // Latency histograms per DatabaseService call and TaskController action, plus
+    // Hibernate statistics, shown in Settings and published over JMX
+    public boolean isMetricsEnabled() {
+        return Boolean.parseBoolean(getProperty("metrics.enabled", "true"));
+    }
+    
     public String getAppTitle() {
         return getProperty("app.title", "Task Management & To-Do Application");
     }
@@ -93,6 +307,7 @@ public class ConfigManager {
     
     public void printConfigStatus() {
         System.out.println("=== Configuration Status ===");
+        System.out.println("Database Profile: " + getDbProfile());
         System.out.println("Database URL: " + getDbUrl());
         System.out.println("Database Username: " + getDbUsername());
         System.out.println("Database Driver: " + getDbDriver());
@@ -101,6 +316,30 @@ public class ConfigManager {
         System.out.println("Show SQL: " + isHibernateShowSql());
         System.out.println("Format SQL: " + isHibernateFormatSql());
         System.out.println("Connection Pool Size: " + getHibernatePoolSize());
+        System.out.println("Connection Pool Min Idle: " + getPoolMinIdle());
+        System.out.println("Connection Timeout (ms): " + getPoolConnectionTimeoutMs());
+        System.out.println("Leak Detection Threshold (ms): " + getPoolLeakDetectionThresholdMs());
+        System.out.println("Statement Cache Size: " + getStatementCacheSize());
+        System.out.println("Slow Query Log: " + isSlowQueryLogEnabled() + " (over " + getSlowQueryThresholdMs()
+            + "ms, sample rate " + getSlowQuerySampleRate() + ", " + getSlowQueryLogPath() + ", "
+            + getSlowQueryMaxFiles() + " x " + getSlowQueryMaxFileSizeKb() + "KB)");
+        System.out.println("JDBC Batch Size: " + getJdbcBatchSize());
+        System.out.println("ID Optimizer: " + getIdOptimizer());
+        System.out.println("Task Paging: " + isTaskPagingEnabled()
+            + " (page " + getTaskPageSize() + ", window " + getTaskWindowSize() + ")");
+        System.out.println("Description Preview Length: " + getDescriptionPreviewLength());
+        System.out.println("Search Index: " + isSearchIndexEnabled());
+        System.out.println("Search Debounce (ms): " + getSearchDebounceMs());
+        System.out.println("Write-behind: " + isWriteBehindEnabled() + " (delay " + getWriteBehindDelayMs() + "ms)");
+        System.out.println("Local-first Sync: " + isLocalFirstEnabled() + " (journal " + getSyncJournalPath()
+            + ", every " + getSyncIntervalMs() + "ms, batch " + getSyncBatchSize() + ")");
+        System.out.println("Delta Refresh: every " + getRefreshIntervalMs() + "ms (overlap "
+            + getRefreshOverlapMs() + "ms, tombstones kept " + getTombstoneRetentionDays() + " days)");
+        System.out.println("Password Hashing: " + getPasswordHashIterations() + " iterations, "
+            + getPasswordHashThreads() + " thread(s)");
+        System.out.println("Second-level Cache: " + isCacheEnabled()
+            + " (max " + getCacheMaxEntries() + " entries, ttl " + getCacheTtlSeconds() + "s)");
+        System.out.println("Operation Metrics: " + isMetricsEnabled());
         System.out.println("App Title: " + getAppTitle());
         System.out.println("App Version: " + getAppVersion());
         System.out.println("============================");
@@ -2,13 +2,19 @@ package com.taskmanager.controller;
 
 import java.net.URL;
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
+import com.taskmanager.config.ConfigManager;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.User;
+import com.taskmanager.service.TaskQuery;
+import com.taskmanager.service.TaskStats;
 
-import javafx.beans.property.SimpleStringProperty;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
@@ -21,14 +27,17 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
 import javafx.scene.control.Dialog;
+import javafx.scene.control.IndexedCell;
 import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.TableCell;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.cell.CheckBoxTableCell;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.text.Text;
@@ -54,6 +63,9 @@ public class DashboardController implements Initializable {
     @FXML
     private Button refreshButton;
     
+    @FXML
+    private ProgressIndicator loadingIndicator;
+    
     @FXML
     private Text totalTasksText;
     
@@ -75,6 +87,33 @@ public class DashboardController implements Initializable {
     @FXML
     private Button clearCompletedButton;
     
+    @FXML
+    private HBox bulkActionsBar;
+    
+    @FXML
+    private Label selectionLabel;
+    
+    @FXML
+    private Button bulkCompleteButton;
+    
+    @FXML
+    private Button bulkPendingButton;
+    
+    @FXML
+    private ComboBox<String> bulkPriorityField;
+    
+    @FXML
+    private DatePicker bulkDeadlineField;
+    
+    @FXML
+    private Button bulkDeleteButton;
+    
+    @FXML
+    private Label bulkStatusLabel;
+    
+    @FXML
+    private Label syncStatusLabel;
+    
     @FXML
     private TableView<Task> taskTable;
     
@@ -99,8 +138,19 @@ public class DashboardController implements Initializable {
     @FXML
     private TableColumn<Task, String> actionsColumn;
     
+    // Fetch another page once the scroll position passes this fraction of the window
+    private static final double PAGE_PREFETCH_THRESHOLD = 0.9;
+    
     private User currentUser;
     private TaskController taskController;
+    private boolean pageLoading;
+    private boolean updatingFilters;
+    private SearchPipeline<TaskQuery, List<Task>> searchPipeline;
+    
+    // User-wide totals, shown while the table holds only part of the user's tasks
+    private TaskStats userTotals;
+    private boolean totalsStale;
+    private boolean totalsLoading;
     private SceneRouter sceneRouter;
     private ObservableList<Task> tasks;
     
@@ -109,6 +159,8 @@ public class DashboardController implements Initializable {
         setupTableColumns();
         setupEventHandlers();
         setupFilters();
+        setupBulkActions();
+        setupPaging();
     }
     
     @FXML
@@ -119,17 +171,48 @@ public class DashboardController implements Initializable {
     }
 
 
+    /**
+     * Called every time the dashboard is shown. The view is reused across
+     * navigations, so a different user starts from a clean view; returning
+     * from Settings keeps filters, selection and scroll position.
+     */
     public void setCurrentUser(User user) {
+        boolean userChanged = user != currentUser;
         this.currentUser = user;
         if (user != null) {
             welcomeText.setText("Welcome, " + user.getDisplayName() + "!");
         }
+        if (userChanged && taskController != null) {
+            searchPipeline.cancel();
+            clearFilters();
+            taskTable.getSelectionModel().clearSelection();
+            bulkStatusLabel.setText("");
+            userTotals = null;
+            totalsStale = true;
+            updateStats();
+        }
     }
     
     public void setTaskController(TaskController taskController) {
         this.taskController = taskController;
+        if (searchPipeline != null) {
+            searchPipeline.shutdown();
+        }
+        this.searchPipeline = new SearchPipeline<>(
+            taskController::queryTasks,
+            results -> {
+                taskController.showQueryResult(results);
+                updateStats();
+            },
+            error -> showAlert("Error", "Search failed: " + error.getMessage(), AlertType.ERROR),
+            ConfigManager.getInstance().getSearchDebounceMs());
         this.tasks = taskController.getTasks();
         taskTable.setItems(tasks);
+        
+        // Loads complete asynchronously, so refresh the stats whenever the list changes
+        tasks.addListener((ListChangeListener<Task>) change -> updateStats());
+        loadingIndicator.visibleProperty().bind(taskController.busyProperty());
+        syncStatusLabel.textProperty().bind(taskController.syncStatusProperty());
         updateStats();
     }
     
@@ -139,62 +222,48 @@ public class DashboardController implements Initializable {
     
     private void setupTableColumns() {
         // Completed column with checkbox
-        completedColumn.setCellValueFactory(new PropertyValueFactory<>("completed"));
+        completedColumn.setCellValueFactory(cellData -> TaskCellValues.completed(cellData.getValue()));
         completedColumn.setCellFactory(CheckBoxTableCell.forTableColumn(completedColumn));
         completedColumn.setOnEditCommit(event -> {
             Task task = event.getRowValue();
-            taskController.toggleTaskCompletion(task);
+            taskController.toggleTaskCompletion(task).thenRun(this::markTotalsStale);
             updateStats();
         });
         
         // Title column
-        titleColumn.setCellValueFactory(new PropertyValueFactory<>("title"));
+        titleColumn.setCellValueFactory(cellData -> TaskCellValues.title(cellData.getValue()));
         
         // Description column
-        descriptionColumn.setCellValueFactory(new PropertyValueFactory<>("description"));
+        descriptionColumn.setCellValueFactory(cellData -> TaskCellValues.description(cellData.getValue()));
         
         // Priority column with color coding
-        priorityColumn.setCellValueFactory(new PropertyValueFactory<>("priority"));
+        priorityColumn.setCellValueFactory(cellData -> TaskCellValues.priority(cellData.getValue()));
         priorityColumn.setCellFactory(column -> new TableCell<Task, String>() {
+            // Toggled only when the priority changes, so reused cells do not restyle
+            private String styleClass;
+            
             @Override
             protected void updateItem(String priority, boolean empty) {
                 super.updateItem(priority, empty);
-                if (empty || priority == null) {
-                    setText(null);
-                    setStyle("");
-                } else {
-                    setText(priority);
-                    switch (priority) {
-                        case "High":
-                            setStyle("-fx-text-fill: #e74c3c; -fx-font-weight: bold;");
-                            break;
-                        case "Medium":
-                            setStyle("-fx-text-fill: #f39c12; -fx-font-weight: bold;");
-                            break;
-                        case "Low":
-                            setStyle("-fx-text-fill: #27ae60; -fx-font-weight: bold;");
-                            break;
+                setText(empty ? null : priority);
+                String next = empty ? null : TaskCellValues.priorityStyleClass(priority);
+                if (!Objects.equals(next, styleClass)) {
+                    if (styleClass != null) {
+                        getStyleClass().remove(styleClass);
                     }
+                    if (next != null) {
+                        getStyleClass().add(next);
+                    }
+                    styleClass = next;
                 }
             }
         });
         
         // Deadline column
-        deadlineColumn.setCellValueFactory(cellData -> {
-            LocalDate deadline = cellData.getValue().getDeadline();
-            if (deadline != null) {
-                return new SimpleStringProperty(deadline.format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-            }
-            return new SimpleStringProperty("");
-        });
+        deadlineColumn.setCellValueFactory(cellData -> TaskCellValues.deadline(cellData.getValue()));
         
         // Created column
-        createdColumn.setCellValueFactory(cellData -> {
-            if (cellData.getValue().getCreatedAt() != null) {
-                return new SimpleStringProperty(cellData.getValue().getCreatedAt().format(DateTimeFormatter.ofPattern("MMM dd, yyyy")));
-            }
-            return new SimpleStringProperty("");
-        });
+        createdColumn.setCellValueFactory(cellData -> TaskCellValues.created(cellData.getValue()));
         
         // Actions column
         actionsColumn.setCellFactory(createActionsCellFactory());
@@ -204,6 +273,7 @@ public class DashboardController implements Initializable {
         return column -> new TableCell<Task, String>() {
             private final Button editButton = new Button("Edit");
             private final Button deleteButton = new Button("Delete");
+            private final HBox buttons = new HBox(5, editButton, deleteButton);
             
             {
                 editButton.setStyle("-fx-background-color: #3498db; -fx-text-fill: white; -fx-padding: 5 10;");
@@ -223,42 +293,44 @@ public class DashboardController implements Initializable {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
-                if (empty) {
-                    setGraphic(null);
-                } else {
-                    HBox buttons = new HBox(5, editButton, deleteButton);
-                    setGraphic(buttons);
-                }
+                setGraphic(empty ? null : buttons);
             }
         };
     }
     
     private void setupEventHandlers() {
-        // Search functionality
-        searchField.textProperty().addListener((obs, oldVal, newVal) -> {
-            taskController.searchTasks(newVal);
-            updateStats();
-        });
-        
-        // Filter functionality
-        priorityFilter.valueProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal != null && !newVal.equals("All")) {
-                taskController.loadTasksByPriority(newVal);
-            } else {
-                taskController.loadUserTasks();
-            }
-            updateStats();
-        });
-        
-        statusFilter.valueProperty().addListener((obs, oldVal, newVal) -> {
-            if (newVal != null && !newVal.equals("All")) {
-                boolean completed = newVal.equals("Completed");
-                taskController.loadTasksByStatus(completed);
-            } else {
-                taskController.loadUserTasks();
-            }
-            updateStats();
-        });
+        // Search and both filters feed one combined query; typing is debounced
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> applyFilters(true));
+        priorityFilter.valueProperty().addListener((obs, oldVal, newVal) -> applyFilters(false));
+        statusFilter.valueProperty().addListener((obs, oldVal, newVal) -> applyFilters(false));
+    }
+    
+    private TaskQuery buildQuery() {
+        TaskQuery query = new TaskQuery().text(searchField.getText());
+        String priority = priorityFilter.getValue();
+        if (priority != null && !priority.equals("All")) {
+            query.priority(priority);
+        }
+        String status = statusFilter.getValue();
+        if (status != null && !status.equals("All")) {
+            query.completed(status.equals("Completed"));
+        }
+        return query;
+    }
+    
+    private void applyFilters(boolean debounce) {
+        if (updatingFilters || taskController == null) {
+            return;
+        }
+        TaskQuery query = buildQuery();
+        if (taskController.isDefaultView(query)) {
+            searchPipeline.cancel();
+            taskController.applyQuery(query);
+        } else if (debounce) {
+            searchPipeline.submit(query);
+        } else {
+            searchPipeline.submitNow(query);
+        }
     }
     
     private void setupFilters() {
@@ -271,16 +343,146 @@ public class DashboardController implements Initializable {
         statusFilter.setValue("All");
     }
     
+    private void setupPaging() {
+        // The table's VirtualFlow exists once the skin is created
+        taskTable.skinProperty().addListener((obs, oldSkin, newSkin) -> {
+            if (newSkin != null && taskTable.lookup(".virtual-flow") instanceof VirtualFlow<?> flow) {
+                flow.positionProperty().addListener((o, oldPos, newPos) -> onTableScrolled(flow, newPos.doubleValue()));
+            }
+        });
+    }
+    
+    private void onTableScrolled(VirtualFlow<?> flow, double position) {
+        if (pageLoading || taskController == null || !taskController.isPaged()) {
+            return;
+        }
+        IndexedCell<?> firstVisible = flow.getFirstVisibleCell();
+        if (firstVisible == null) {
+            return;
+        }
+        int firstIndex = firstVisible.getIndex();
+        
+        if (position >= PAGE_PREFETCH_THRESHOLD && taskController.hasOlderTasks()) {
+            pageLoading = true;
+            taskController.loadNextPage().whenComplete((dropped, error) -> {
+                if (dropped != null && dropped > 0) {
+                    // Keep the same rows in view after the top of the window was trimmed
+                    taskTable.scrollTo(Math.max(firstIndex - dropped, 0));
+                }
+                pageLoading = false;
+            });
+        } else if (position <= 1.0 - PAGE_PREFETCH_THRESHOLD && taskController.hasNewerTasks()) {
+            pageLoading = true;
+            taskController.loadPreviousPage().whenComplete((inserted, error) -> {
+                if (inserted != null) {
+                    taskTable.scrollTo(firstIndex + inserted);
+                }
+                pageLoading = false;
+            });
+        }
+    }
+    
+    private void setupBulkActions() {
+        taskTable.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        bulkPriorityField.getItems().addAll("High", "Medium", "Low");
+        
+        // Bulk controls are only usable while rows are selected
+        taskTable.getSelectionModel().getSelectedItems().addListener((ListChangeListener<Task>) change -> {
+            int count = taskTable.getSelectionModel().getSelectedItems().size();
+            selectionLabel.setText(count + " selected");
+            bulkCompleteButton.setDisable(count == 0);
+            bulkPendingButton.setDisable(count == 0);
+            bulkPriorityField.setDisable(count == 0);
+            bulkDeadlineField.setDisable(count == 0);
+            bulkDeleteButton.setDisable(count == 0);
+        });
+        bulkCompleteButton.setDisable(true);
+        bulkPendingButton.setDisable(true);
+        bulkPriorityField.setDisable(true);
+        bulkDeadlineField.setDisable(true);
+        bulkDeleteButton.setDisable(true);
+    }
+    
+    private List<Task> getSelectedTasks() {
+        // Copy, because the selection changes as rows are updated or removed
+        return new ArrayList<>(taskTable.getSelectionModel().getSelectedItems());
+    }
+    
+    @FXML
+    private void onBulkComplete() {
+        List<Task> selected = getSelectedTasks();
+        if (!selected.isEmpty()) {
+            showBulkResult(taskController.setTasksCompleted(selected, true), "marked complete");
+        }
+    }
+    
+    @FXML
+    private void onBulkPending() {
+        List<Task> selected = getSelectedTasks();
+        if (!selected.isEmpty()) {
+            showBulkResult(taskController.setTasksCompleted(selected, false), "marked pending");
+        }
+    }
+    
+    @FXML
+    private void onBulkPriority() {
+        String priority = bulkPriorityField.getValue();
+        List<Task> selected = getSelectedTasks();
+        if (priority != null && !selected.isEmpty()) {
+            showBulkResult(taskController.setTasksPriority(selected, priority), "set to " + priority);
+        }
+        bulkPriorityField.getSelectionModel().clearSelection();
+    }
+    
+    @FXML
+    private void onBulkReschedule() {
+        LocalDate deadline = bulkDeadlineField.getValue();
+        List<Task> selected = getSelectedTasks();
+        if (deadline != null && !selected.isEmpty()) {
+            showBulkResult(taskController.setTasksDeadline(selected, deadline), "rescheduled");
+        }
+        bulkDeadlineField.setValue(null);
+    }
+    
+    @FXML
+    private void onBulkDelete() {
+        List<Task> selected = getSelectedTasks();
+        if (selected.isEmpty()) {
+            return;
+        }
+        
+        Alert alert = new Alert(AlertType.CONFIRMATION);
+        alert.setTitle("Delete Tasks");
+        alert.setHeaderText("Are you sure you want to delete " + selected.size() + " selected tasks?");
+        alert.setContentText("This action cannot be undone.");
+        
+        if (alert.showAndWait().orElse(null) == ButtonType.OK) {
+            taskTable.getSelectionModel().clearSelection();
+            showBulkResult(taskController.deleteTasks(selected), "deleted");
+        }
+    }
+    
+    private void showBulkResult(CompletableFuture<Integer> result, String action) {
+        // The controller completes its futures on the FX thread
+        result.thenAccept(affected -> {
+            bulkStatusLabel.setText(affected + (affected == 1 ? " task " : " tasks ") + action);
+            taskTable.refresh();
+            markTotalsStale();
+        });
+    }
+    
     @FXML
     private void onLogout() {
+        searchPipeline.cancel(); // the view is kept for the next login
         sceneRouter.logout();
     }
     
     @FXML
     private void onRefresh() {
-        taskController.loadUserTasks();
-        updateStats();
+        searchPipeline.cancel();
         clearFilters();
+        totalsStale = true;
+        taskController.refresh(); // reads only the changed rows unless a filter was showing
     }
     
     @FXML
@@ -296,8 +498,7 @@ public class DashboardController implements Initializable {
         alert.setContentText("This action cannot be undone.");
         
         if (alert.showAndWait().orElse(null) == ButtonType.OK) {
-            taskController.clearCompletedTasks();
-            updateStats();
+            showBulkResult(taskController.clearCompletedTasks(), "cleared");
         }
     }
     
@@ -353,8 +554,7 @@ public class DashboardController implements Initializable {
                     return null;
                 }
                 
-                taskController.addTask(title, description, priority, deadline);
-                updateStats();
+                taskController.addTask(title, description, priority, deadline).thenRun(this::markTotalsStale);
                 return null;
             }
             return null;
@@ -364,6 +564,16 @@ public class DashboardController implements Initializable {
     }
     
     private void showEditTaskDialog(Task task) {
+        if (!task.isDescriptionLoaded()) {
+            // The table only holds a preview of the description; edit the full text
+            taskController.loadDescription(task).thenAccept(loaded -> {
+                if (loaded != null) {
+                    showEditTaskDialog(loaded);
+                }
+            });
+            return;
+        }
+        
         Dialog<Task> dialog = new Dialog<>();
         dialog.setTitle("Edit Task");
         dialog.setHeaderText("Update task details");
@@ -423,8 +633,7 @@ public class DashboardController implements Initializable {
                 task.setDeadline(deadline);
                 task.setCompleted(completed);
                 
-                taskController.updateTask(task);
-                updateStats();
+                taskController.updateTask(task).thenRun(this::markTotalsStale);
                 return null;
             }
             return null;
@@ -440,23 +649,55 @@ public class DashboardController implements Initializable {
         alert.setContentText("Task: " + task.getTitle() + "\nThis action cannot be undone.");
         
         if (alert.showAndWait().orElse(null) == ButtonType.OK) {
-            taskController.deleteTask(task);
-            updateStats();
+            taskController.deleteTask(task).thenRun(this::markTotalsStale);
         }
     }
     
     private void updateStats() {
-        totalTasksText.setText(String.valueOf(taskController.getTaskCount()));
-        completedTasksText.setText(String.valueOf(taskController.getCompletedTaskCount()));
-        pendingTasksText.setText(String.valueOf(taskController.getPendingTaskCount()));
-        highPriorityTasksText.setText(String.valueOf(taskController.getHighPriorityTaskCount()));
-        overdueTasksText.setText(String.valueOf(taskController.getOverdueTaskCount()));
+        // The list's own counts are exact while it holds every task; filtered or
+        // paged views show the user's totals from the aggregate query instead
+        boolean listIsComplete = taskController.isShowingAllTasks();
+        if (!listIsComplete && (userTotals == null || totalsStale)) {
+            refreshTotals();
+        }
+        TaskStats stats = listIsComplete || userTotals == null ? taskController.getListStats() : userTotals;
+        totalTasksText.setText(String.valueOf(stats.getTotal()));
+        completedTasksText.setText(String.valueOf(stats.getCompleted()));
+        pendingTasksText.setText(String.valueOf(stats.getPending()));
+        highPriorityTasksText.setText(String.valueOf(stats.getHighPriority()));
+        overdueTasksText.setText(String.valueOf(stats.getOverdue()));
+    }
+    
+    private void refreshTotals() {
+        if (totalsLoading) {
+            return;
+        }
+        totalsLoading = true;
+        totalsStale = false;
+        taskController.loadTaskStats().whenComplete((stats, error) -> {
+            totalsLoading = false;
+            if (stats != null) {
+                userTotals = stats;
+                updateStats();
+            }
+        });
+    }
+    
+    // Called after anything that changes tasks in the database
+    private void markTotalsStale() {
+        totalsStale = true;
+        updateStats();
     }
     
     private void clearFilters() {
-        searchField.clear();
-        priorityFilter.setValue("All");
-        statusFilter.setValue("All");
+        updatingFilters = true;
+        try {
+            searchField.clear();
+            priorityFilter.setValue("All");
+            statusFilter.setValue("All");
+        } finally {
+            updatingFilters = false;
+        }
     }
     
     private void showAlert(String title, String message, AlertType type) {
@@ -1,7 +1,8 @@
 package com.taskmanager.controller;
 
 import com.taskmanager.entity.User;
-import com.taskmanager.service.DatabaseService;
+import com.taskmanager.service.AsyncDatabaseService;
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.Alert.AlertType;
@@ -24,11 +25,14 @@ public class LoginController {
     @FXML
     private Label statusLabel;
     
+    @FXML
+    private ProgressIndicator loginProgress;
+    
     private SceneRouter sceneRouter;
-    private final DatabaseService databaseService;
+    private final AsyncDatabaseService asyncDatabase;
     
     public LoginController() {
-        this.databaseService = DatabaseService.getInstance();
+        this.asyncDatabase = AsyncDatabaseService.getInstance();
     }
     
     public void setSceneRouter(SceneRouter sceneRouter) {
@@ -46,6 +50,14 @@ public class LoginController {
         passwordField.textProperty().addListener((obs, oldVal, newVal) -> clearStatus());
     }
     
+    // The login view is reused after logout; start it empty
+    public void reset() {
+        passwordField.clear();
+        clearStatus();
+        setLoading(false);
+        emailField.requestFocus();
+    }
+    
     @FXML
     private void onLogin() {
         String email = emailField.getText().trim();
@@ -56,18 +68,25 @@ public class LoginController {
             return;
         }
         
-        try {
-            User user = databaseService.authenticateUser(email, password);
-            if (user != null) {
+        setLoading(true);
+        asyncDatabase.authenticateUser(email, password).whenCompleteAsync((user, error) -> {
+            setLoading(false);
+            if (error != null) {
+                Throwable cause = AsyncDatabaseService.rootCause(error);
+                showStatus("Login failed: " + cause.getMessage(), true);
+                cause.printStackTrace();
+            } else if (user != null) {
                 sceneRouter.setCurrentUser(user);
                 sceneRouter.showDashboard();
             } else {
                 showStatus("Invalid email or password", true);
             }
-        } catch (Exception e) {
-            showStatus("Login failed: " + e.getMessage(), true);
-            e.printStackTrace();
-        }
+        }, Platform::runLater);
+    }
+    
+    private void setLoading(boolean loading) {
+        loginProgress.setVisible(loading);
+        loginButton.setDisable(loading);
     }
     
     @FXML
@@ -136,14 +155,16 @@ public class LoginController {
                     return null;
                 }
                 
-                try {
-                    User user = databaseService.registerUser(email, password, displayName);
-                    showAlert("Success", "Account created successfully! You can now log in.", AlertType.INFORMATION);
-                    return user;
-                } catch (Exception e) {
-                    showAlert("Error", "Registration failed: " + e.getMessage(), AlertType.ERROR);
-                    return null;
-                }
+                setLoading(true);
+                asyncDatabase.registerUser(email, password, displayName).whenCompleteAsync((user, error) -> {
+                    setLoading(false);
+                    if (error != null) {
+                        showAlert("Error", "Registration failed: " + AsyncDatabaseService.rootCause(error).getMessage(), AlertType.ERROR);
+                    } else {
+                        showAlert("Success", "Account created successfully! You can now log in.", AlertType.INFORMATION);
+                    }
+                }, Platform::runLater);
+                return null;
             }
             return null;
         });
@@ -1,6 +1,9 @@
 package com.taskmanager.controller;
 
 import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import com.taskmanager.config.ConfigManager;
 import com.taskmanager.entity.User;
@@ -13,12 +16,35 @@ import javafx.scene.control.Alert.AlertType;
 import javafx.stage.Stage;
 
 public class SceneRouter {
+    public static final String LOGIN_VIEW = "/fxml/LoginView.fxml";
+    public static final String DASHBOARD_VIEW = "/fxml/DashboardView.fxml";
+    public static final String SETTINGS_VIEW = "/fxml/SettingsView.fxml";
+    private static final String STYLESHEET = "/css/application.css";
+    
+    // Views loaded into the cache during startup, while the login screen shows
+    public static final List<String> PRELOADED_VIEWS = List.of(DASHBOARD_VIEW, SETTINGS_VIEW);
+    
     private static SceneRouter instance;
     private Stage primaryStage;
     private User currentUser;
     private final TaskController taskController;
     private final ConfigManager configManager;
     
+    // Each view is loaded once; its controller, nodes and scene are reused on every switch to it
+    private final Map<String, View> views = new HashMap<>();
+    
+    private static class View {
+        final Parent root;
+        final Object controller;
+        final Scene scene;
+        
+        View(Parent root, Object controller, Scene scene) {
+            this.root = root;
+            this.controller = controller;
+            this.scene = scene;
+        }
+    }
+    
     private SceneRouter() {
         this.taskController = new TaskController();
         this.configManager = ConfigManager.getInstance();
@@ -45,44 +71,83 @@ public class SceneRouter {
         // Show login screen initially
         showLogin();
     }
-    public void switchToSettingsView(User user) {
-    try {
-        FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/SettingsView.fxml"));
-        Parent root = loader.load();
-
-        // Pass current user to the controller
-        SettingsController controller = loader.getController();
-        controller.setCurrentUserId(user.getId());
-        controller.setSceneRouter(this); // pass SceneRouter reference
-
+    /**
+     * Loads a view's FXML. Safe off the FX thread, since the nodes are not shown yet.
+     */
+    public static FXMLLoader loadView(String fxml) throws IOException {
+        FXMLLoader loader = new FXMLLoader(SceneRouter.class.getResource(fxml));
+        loader.load();
+        return loader;
+    }
+    
+    /**
+     * Puts a view loaded in the background into the view cache and applies the
+     * CSS, so the stylesheet is parsed and the skins exist before it is shown.
+     * FX thread only.
+     */
+    public void addPreloadedView(String fxml, FXMLLoader loader) {
+        if (!views.containsKey(fxml)) {
+            View view = register(fxml, loader);
+            view.root.applyCss();
+        }
+    }
+    
+    /**
+     * The cached view, loading it on first use.
+     */
+    private View view(String fxml) throws IOException {
+        View view = views.get(fxml);
+        return view != null ? view : register(fxml, loadView(fxml));
+    }
+    
+    // Creates the view's scene and passes its controller the references that do not change
+    private View register(String fxml, FXMLLoader loader) {
+        Parent root = loader.getRoot();
+        Object controller = loader.getController();
+        if (controller instanceof LoginController) {
+            ((LoginController) controller).setSceneRouter(this);
+        } else if (controller instanceof DashboardController) {
+            ((DashboardController) controller).setSceneRouter(this);
+            ((DashboardController) controller).setTaskController(taskController);
+        } else if (controller instanceof SettingsController) {
+            ((SettingsController) controller).setSceneRouter(this);
+        }
+        View view = new View(root, controller, createScene(root));
+        views.put(fxml, view);
+        return view;
+    }
+    
+    private Scene createScene(Parent root) {
         Scene scene = new Scene(root);
-        scene.getStylesheets().add(getClass().getResource("/css/application.css").toExternalForm());
-
-        primaryStage.setScene(scene);
+        scene.getStylesheets().add(getClass().getResource(STYLESHEET).toExternalForm());
+        return scene;
+    }
+    
+    private void show(View view) {
+        primaryStage.setScene(view.scene);
         primaryStage.centerOnScreen();
         primaryStage.show();
-
-    } catch (IOException e) {
-        e.printStackTrace();
-        showAlert("Error", "Failed to load settings view: " + e.getMessage(), Alert.AlertType.ERROR);
     }
+    
+    public void switchToSettingsView(User user) {
+        try {
+            View view = view(SETTINGS_VIEW);
+            
+            // Reloads the user's preferences and the diagnostics
+            ((SettingsController) view.controller).setCurrentUserId(user.getId());
+            
+            show(view);
+        } catch (IOException e) {
+            e.printStackTrace();
+            showAlert("Error", "Failed to load settings view: " + e.getMessage(), Alert.AlertType.ERROR);
+        }
     }
 
     public void showLogin() {
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/LoginView.fxml"));
-            Parent root = loader.load();
-            
-            // Get the controller and set the router reference
-            LoginController controller = loader.getController();
-            controller.setSceneRouter(this);
-            
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/application.css").toExternalForm());
-            
-            primaryStage.setScene(scene);
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            View view = view(LOGIN_VIEW);
+            ((LoginController) view.controller).reset();
+            show(view);
         } catch (IOException e) {
             showAlert("Error", "Failed to load login view: " + e.getMessage(), AlertType.ERROR);
             e.printStackTrace();
@@ -96,21 +161,12 @@ public class SceneRouter {
         }
         
         try {
-            FXMLLoader loader = new FXMLLoader(getClass().getResource("/fxml/DashboardView.fxml"));
-            Parent root = loader.load();
-            
-            // Get the controller and set references
-            DashboardController controller = loader.getController();
-            controller.setSceneRouter(this);
-            controller.setCurrentUser(currentUser);
-            controller.setTaskController(taskController);
+            View view = view(DASHBOARD_VIEW);
             
-            Scene scene = new Scene(root);
-            scene.getStylesheets().add(getClass().getResource("/css/application.css").toExternalForm());
+            // Resets the filters and totals only when a different user logged in
+            ((DashboardController) view.controller).setCurrentUser(currentUser);
             
-            primaryStage.setScene(scene);
-            primaryStage.centerOnScreen();
-            primaryStage.show();
+            show(view);
         } catch (IOException e) {
             showAlert("Error", "Failed to load dashboard view: " + e.getMessage(), AlertType.ERROR);
             e.printStackTrace();
@@ -136,6 +192,11 @@ public class SceneRouter {
         return taskController;
     }
     
+    // Stops the background work of the shared controllers; called when the application exits
+    public void shutdown() {
+        taskController.shutdown();
+    }
+    
     public Stage getPrimaryStage() {
         return primaryStage;
     }
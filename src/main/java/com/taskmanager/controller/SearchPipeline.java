@@ -0,0 +1,101 @@
+package com.taskmanager.controller;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.util.Duration;
+
+/**
+ * Debounced, cancellable search: requests submitted on the FX thread are held
+ * until input pauses, run on a background thread, and only the result of the
+ * latest request is published back on the FX thread.
+ */
+public class SearchPipeline<Q, R> {
+    private final Function<Q, R> search;
+    private final Consumer<R> publisher;
+    private final Consumer<Throwable> errorHandler;
+    private final PauseTransition debounce;
+    private final ExecutorService executor;
+    private final AtomicLong generation = new AtomicLong();
+
+    private Q pendingQuery;
+    private Future<?> inFlight;
+
+    public SearchPipeline(Function<Q, R> search, Consumer<R> publisher, Consumer<Throwable> errorHandler, long debounceMillis) {
+        this.search = search;
+        this.publisher = publisher;
+        this.errorHandler = errorHandler;
+        this.debounce = new PauseTransition(Duration.millis(debounceMillis));
+        this.debounce.setOnFinished(event -> dispatch(pendingQuery));
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-pipeline");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules a search once input has been idle for the debounce delay.
+     */
+    public void submit(Q query) {
+        pendingQuery = query;
+        debounce.playFromStart();
+    }
+
+    /**
+     * Runs a search right away, superseding any pending or running one.
+     */
+    public void submitNow(Q query) {
+        debounce.stop();
+        dispatch(query);
+    }
+
+    /**
+     * Drops pending and in-flight searches; their results will not be published.
+     * A running search is left to finish rather than interrupted, since an
+     * interrupt in the middle of a JDBC call can close the pooled connection.
+     */
+    public void cancel() {
+        debounce.stop();
+        generation.incrementAndGet();
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    public void shutdown() {
+        cancel();
+        executor.shutdown();
+    }
+
+    private void dispatch(Q query) {
+        cancel();
+        long ticket = generation.get();
+        inFlight = executor.submit(() -> {
+            if (ticket != generation.get()) {
+                return; // superseded while queued
+            }
+            try {
+                R result = search.apply(query);
+                Platform.runLater(() -> {
+                    if (ticket == generation.get()) {
+                        publisher.accept(result);
+                    }
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (ticket == generation.get()) {
+                        errorHandler.accept(e);
+                    }
+                });
+            }
+        });
+    }
+}
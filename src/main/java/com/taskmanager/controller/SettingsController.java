@@ -1,10 +1,31 @@
 package com.taskmanager.controller;
 
-import com.taskmanager.service.DatabaseService;
-
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+import org.hibernate.stat.Statistics;
+
+import com.taskmanager.config.ConfigManager;
+import com.taskmanager.service.AsyncDatabaseService;
+import com.taskmanager.util.HibernateUtil;
+import com.taskmanager.util.LatencyHistogram;
+import com.taskmanager.util.OperationMetrics;
+import com.taskmanager.util.PersistenceStatistics;
+import com.taskmanager.util.SecondLevelCache;
+import com.taskmanager.util.SlowQueryLog;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.value.ObservableValue;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
 import javafx.scene.control.ComboBox;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableColumn.CellDataFeatures;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import javafx.util.Callback;
 
 public class SettingsController {
 
@@ -14,6 +35,37 @@ public class SettingsController {
     @FXML
     private Button backButton;
 
+    @FXML
+    private Button savePreferenceButton;
+
+    @FXML
+    private ProgressIndicator settingsProgress;
+
+    // Diagnostics
+    @FXML
+    private TableView<LatencyHistogram> operationsTable;
+
+    @FXML
+    private TableColumn<LatencyHistogram, String> operationColumn;
+
+    @FXML
+    private TableColumn<LatencyHistogram, Long> callsColumn;
+
+    @FXML
+    private TableColumn<LatencyHistogram, Long> errorsColumn;
+
+    @FXML
+    private TableColumn<LatencyHistogram, String> p50Column;
+
+    @FXML
+    private TableColumn<LatencyHistogram, String> p99Column;
+
+    @FXML
+    private TableColumn<LatencyHistogram, String> maxColumn;
+
+    @FXML
+    private TextArea statisticsArea;
+
     private SceneRouter sceneRouter;
 
     public void setSceneRouter(SceneRouter router) {
@@ -27,7 +79,7 @@ public class SettingsController {
         }
     }
 
-    private DatabaseService db = DatabaseService.getInstance();
+    private AsyncDatabaseService db = AsyncDatabaseService.getInstance();
 
     // You need to set this from your login/session
     private int currentUserId;
@@ -41,15 +93,15 @@ public class SettingsController {
         // Populate ComboBox options
         priorityComboBox.getItems().addAll("High", "Medium", "Low");
 
+        operationColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getName()));
+        callsColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getCount()));
+        errorsColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getErrorCount()));
+        p50Column.setCellValueFactory(millis(LatencyHistogram::getP50Millis));
+        p99Column.setCellValueFactory(millis(LatencyHistogram::getP99Millis));
+        maxColumn.setCellValueFactory(millis(LatencyHistogram::getMaxMillis));
+
         // Load current user preference
-        if (currentUserId != 0) {
-            String pref = db.getUserPreference(currentUserId, "defaultTaskPriority");
-            if (pref != null) {
-                priorityComboBox.setValue(pref);
-            } else {
-                priorityComboBox.setValue("Medium"); // default fallback
-            }
-        }
+        loadPreferences();
     }
 
     /**
@@ -59,8 +111,15 @@ public class SettingsController {
     public void savePreference() {
     String selectedPriority = priorityComboBox.getValue();
     if (selectedPriority != null && currentUserId != 0) {
-        db.saveUserPreference(currentUserId, "defaultTaskPriority", selectedPriority);
-        System.out.println("Preference saved: " + selectedPriority);
+        setLoading(true);
+        db.saveUserPreference(currentUserId, "defaultTaskPriority", selectedPriority).whenCompleteAsync((ignored, error) -> {
+            setLoading(false);
+            if (error != null) {
+                System.err.println("Failed to save preference: " + AsyncDatabaseService.rootCause(error).getMessage());
+            } else {
+                System.out.println("Preference saved: " + selectedPriority);
+            }
+        }, Platform::runLater);
     }
     }
 
@@ -76,15 +135,82 @@ public class SettingsController {
     public void setCurrentUserId(int userId) {
     this.currentUserId = userId;
     loadPreferences();
+    refreshDiagnostics();
     }
 
     private void loadPreferences() {
         if (currentUserId != 0) {
-            String pref = db.getUserPreference(currentUserId, "defaultTaskPriority");
-            priorityComboBox.setValue(pref != null ? pref : "Medium");
+            setLoading(true);
+            db.getUserPreference(currentUserId, "defaultTaskPriority").whenCompleteAsync((pref, error) -> {
+                setLoading(false);
+                priorityComboBox.setValue(pref != null ? pref : "Medium"); // default fallback
+            }, Platform::runLater);
+        }
+    }
+
+    private void setLoading(boolean loading) {
+        settingsProgress.setVisible(loading);
+        savePreferenceButton.setDisable(loading);
+    }
+
+    // Cell values of a latency column, in milliseconds with two decimals
+    private static Callback<CellDataFeatures<LatencyHistogram, String>, ObservableValue<String>> millis(
+            ToDoubleFunction<LatencyHistogram> value) {
+        return cell -> new ReadOnlyObjectWrapper<>(String.format("%.2f", value.applyAsDouble(cell.getValue())));
+    }
+
+    /**
+     * Re-reads the operation timings, Hibernate statistics and pool and cache
+     * summaries. Reading them can build the SessionFactory and touch the pool,
+     * so they are gathered off the FX thread like the other database calls.
+     */
+    @FXML
+    public void refreshDiagnostics() {
+        db.supply(SettingsController::readDiagnostics).whenCompleteAsync((diagnostics, error) -> {
+            if (error != null) {
+                statisticsArea.setText("Failed to read diagnostics: " + AsyncDatabaseService.rootCause(error).getMessage());
+                return;
+            }
+            operationsTable.getItems().setAll(diagnostics.operations);
+            operationsTable.refresh();
+            statisticsArea.setText(diagnostics.text);
+        }, Platform::runLater);
+    }
+
+    private static Diagnostics readDiagnostics() {
+        OperationMetrics metrics = OperationMetrics.getInstance();
+        Statistics statistics = HibernateUtil.getStatistics();
+        StringBuilder text = new StringBuilder();
+        if (!metrics.isEnabled()) {
+            text.append("Operation timing disabled (metrics.enabled=false)").append(System.lineSeparator());
+        }
+        text.append(PersistenceStatistics.describe(statistics)).append(System.lineSeparator())
+            .append(HibernateUtil.getPoolMetrics()).append(System.lineSeparator())
+            .append(SecondLevelCache.describe(statistics));
+        if (ConfigManager.getInstance().isSlowQueryLogEnabled()) {
+            text.append(System.lineSeparator()).append(SlowQueryLog.getInstance());
         }
+        return new Diagnostics(metrics.getOperations(), text.toString());
     }
 
+    @FXML
+    private void resetDiagnostics() {
+        db.run(() -> {
+            OperationMetrics.getInstance().reset();
+            HibernateUtil.getStatistics().clear();
+        }).whenCompleteAsync((ignored, error) -> refreshDiagnostics(), Platform::runLater);
+    }
+
+    // What the diagnostics panel shows, read on a background thread
+    private static final class Diagnostics {
+        final List<LatencyHistogram> operations;
+        final String text;
+
+        Diagnostics(List<LatencyHistogram> operations, String text) {
+            this.operations = operations;
+            this.text = text;
+        }
+    }
 
     
 }
@@ -0,0 +1,164 @@
+package com.taskmanager.controller;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.taskmanager.entity.Task;
+
+import javafx.beans.InvalidationListener;
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+
+/**
+ * Cell values for the dashboard task table, one method per column. Kept apart
+ * from DashboardController so they can be measured without a running UI.
+ *
+ * The table asks for a value every time a cell is reused while scrolling, so
+ * values that repeat across rows (dates, priorities, the completed flag) are
+ * formatted once and shared, and each task keeps its title and description
+ * values until the text changes. The values are constants, like the wrappers
+ * they replace: an edit shows once the table refreshes its cells.
+ */
+public final class TaskCellValues {
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+
+    // Distinct dates shown so far; cleared if a huge date range fills it
+    private static final int MAX_CACHED_DATES = 4096;
+    private static final Map<LocalDate, ObservableValue<String>> DATES = new ConcurrentHashMap<>();
+    private static final Map<String, ObservableValue<String>> PRIORITIES = Map.of(
+        "High", new Constant<>("High"),
+        "Medium", new Constant<>("Medium"),
+        "Low", new Constant<>("Low"));
+
+    private static final ObservableValue<Boolean> COMPLETED = new Constant<>(true);
+    private static final ObservableValue<Boolean> PENDING = new Constant<>(false);
+    private static final ObservableValue<String> EMPTY = new Constant<>("");
+
+    private TaskCellValues() {
+    }
+
+    public static ObservableValue<Boolean> completed(Task task) {
+        return task.isCompleted() ? COMPLETED : PENDING;
+    }
+
+    public static ObservableValue<String> title(Task task) {
+        TextValues values = texts(task);
+        String title = task.getTitle();
+        if (values.title == null || values.title.getValue() != title) {
+            values.title = new Constant<>(title);
+        }
+        return values.title;
+    }
+
+    public static ObservableValue<String> description(Task task) {
+        TextValues values = texts(task);
+        String description = task.getDescription();
+        if (values.description == null || values.description.getValue() != description) {
+            values.description = new Constant<>(description);
+        }
+        return values.description;
+    }
+
+    public static ObservableValue<String> priority(Task task) {
+        String priority = task.getPriority();
+        ObservableValue<String> shared = priority != null ? PRIORITIES.get(priority) : null;
+        return shared != null ? shared : new Constant<>(priority);
+    }
+
+    public static ObservableValue<String> deadline(Task task) {
+        return date(task.getDeadline());
+    }
+
+    public static ObservableValue<String> created(Task task) {
+        return task.getCreatedAt() != null ? date(task.getCreatedAt().toLocalDate()) : EMPTY;
+    }
+
+    /**
+     * The style class that colors a priority cell, or null for an unknown priority.
+     */
+    public static String priorityStyleClass(String priority) {
+        if (priority == null) {
+            return null;
+        }
+        switch (priority) {
+            case "High":
+                return "priority-high";
+            case "Medium":
+                return "priority-medium";
+            case "Low":
+                return "priority-low";
+            default:
+                return null;
+        }
+    }
+
+    // Kept on the task, so looking them up costs no more than reading the title
+    private static TextValues texts(Task task) {
+        Object values = task.getCellValues();
+        if (values instanceof TextValues) {
+            return (TextValues) values;
+        }
+        TextValues created = new TextValues();
+        task.setCellValues(created);
+        return created;
+    }
+
+    private static ObservableValue<String> date(LocalDate date) {
+        if (date == null) {
+            return EMPTY;
+        }
+        ObservableValue<String> formatted = DATES.get(date);
+        if (formatted == null) {
+            if (DATES.size() >= MAX_CACHED_DATES) {
+                DATES.clear();
+            }
+            formatted = new Constant<>(date.format(DATE_FORMAT));
+            DATES.put(date, formatted);
+        }
+        return formatted;
+    }
+
+    /**
+     * The text values of one task. The setters keep the same String until the
+     * text changes, so comparing references is enough to notice an edit.
+     */
+    private static final class TextValues {
+        ObservableValue<String> title;
+        ObservableValue<String> description;
+    }
+
+    /**
+     * A value that never changes, so it can be shared by any number of cells
+     * without keeping their listeners.
+     */
+    private static final class Constant<T> implements ObservableValue<T> {
+        private final T value;
+
+        Constant(T value) {
+            this.value = value;
+        }
+
+        @Override
+        public T getValue() {
+            return value;
+        }
+
+        @Override
+        public void addListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void removeListener(ChangeListener<? super T> listener) {
+        }
+
+        @Override
+        public void addListener(InvalidationListener listener) {
+        }
+
+        @Override
+        public void removeListener(InvalidationListener listener) {
+        }
+    }
+}
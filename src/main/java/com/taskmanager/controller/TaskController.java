@@ -1,29 +1,226 @@
 package com.taskmanager.controller;
 
+import com.taskmanager.config.ConfigManager;
 import com.taskmanager.entity.Task;
 import com.taskmanager.entity.User;
+import com.taskmanager.service.AsyncDatabaseService;
 import com.taskmanager.service.DatabaseService;
+import com.taskmanager.service.TaskCursor;
+import com.taskmanager.service.TaskDelta;
+import com.taskmanager.service.TaskPage;
+import com.taskmanager.service.TaskQuery;
+import com.taskmanager.service.TaskSearchIndex;
+import com.taskmanager.service.TaskMutation;
+import com.taskmanager.service.TaskStats;
+import com.taskmanager.service.TaskSyncEngine;
+import com.taskmanager.service.TaskWriteBehind;
+import com.taskmanager.util.OperationMetrics;
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Alert.AlertType;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class TaskController {
     private final DatabaseService databaseService;
-    private User currentUser;
+    private final AsyncDatabaseService asyncDatabase;
+    private volatile User currentUser;
+    
+    // Database calls run in the background; views show a loading indicator while any are pending
+    private final ReadOnlyIntegerWrapper pendingOperations = new ReadOnlyIntegerWrapper(0);
+    private final BooleanBinding busy = Bindings.greaterThan(pendingOperations, 0);
+    
+    // Actions that go to the database are timed from the call until their result is shown
+    private static final String ACTIONS = "TaskController.";
+    private final OperationMetrics metrics = OperationMetrics.getInstance();
     private final ObservableList<Task> tasks;
     
+    // Keyset paging state: the list holds a bounded window of the user's tasks
+    private final boolean pagingEnabled;
+    private final int pageSize;
+    private final int windowSize;
+    private boolean paged;
+    private boolean hasOlder;
+    private boolean hasNewer;
+    private boolean showingAllTasks;
+    
+    private final TaskStatsAggregator stats = new TaskStatsAggregator();
+    
+    // Applies reloads and query results as the rows that changed, not a full reset
+    private final TaskListReconciler reconciler;
+    
+    // Display order of the default view: newest first, as the paged queries read it
+    private static final Comparator<Task> NEWEST_FIRST = Comparator
+        .comparing(Task::getCreatedAt, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()))
+        .thenComparingInt(Task::getId)
+        .reversed();
+    
+    // Delta refresh: when the default view was last read, by the database clock (null while
+    // a query result is shown), and a counter that lets a refresh detect that the list was reloaded meanwhile
+    private LocalDateTime watermark;
+    private int listVersion;
+    private boolean refreshing;
+    private final Duration refreshOverlap;
+    private final int tombstoneRetentionDays;
+    // Runs the delta refresh on the FX thread; null when refresh.interval_ms is 0
+    private final Timeline refreshTimer;
+    
+    // Buffers completion toggles; null when write-behind is disabled
+    private final TaskWriteBehind writeBehind;
+    
+    // Local-first mode: edits go to the journal and are synced in the background; null when disabled
+    private final TaskSyncEngine syncEngine;
+    private final ReadOnlyStringWrapper syncStatus = new ReadOnlyStringWrapper("");
+    
+    // Search index over all of the user's tasks, built on the first search
+    private final boolean searchIndexEnabled;
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    // Guards the fields below; the index is built on a background thread
+    private final Object searchIndexLock = new Object();
+    private boolean searchIndexReady;
+    // Bumped when the index is reset or misses a change, so a build that read
+    // the tasks before that is dropped instead of being marked ready
+    private int searchIndexVersion;
+    
     public TaskController() {
         this.databaseService = DatabaseService.getInstance();
+        this.asyncDatabase = AsyncDatabaseService.getInstance();
         this.tasks = FXCollections.observableArrayList();
+        this.tasks.addListener(stats);
+        this.reconciler = new TaskListReconciler(tasks);
+        
+        ConfigManager config = ConfigManager.getInstance();
+        this.pagingEnabled = config.isTaskPagingEnabled();
+        this.pageSize = config.getTaskPageSize();
+        this.windowSize = Math.max(config.getTaskWindowSize(), pageSize * 2);
+        this.searchIndexEnabled = config.isSearchIndexEnabled();
+        this.syncEngine = config.isLocalFirstEnabled() ? TaskSyncEngine.getInstance() : null;
+        this.refreshOverlap = Duration.ofMillis(config.getRefreshOverlapMs());
+        this.tombstoneRetentionDays = config.getTombstoneRetentionDays();
+        long refreshInterval = config.getRefreshIntervalMs();
+        if (refreshInterval > 0) {
+            this.refreshTimer = new Timeline(new KeyFrame(javafx.util.Duration.millis(refreshInterval),
+                event -> refreshInBackground()));
+            refreshTimer.setCycleCount(Animation.INDEFINITE);
+            refreshTimer.play();
+        } else {
+            this.refreshTimer = null;
+        }
+        this.writeBehind = syncEngine == null && config.isWriteBehindEnabled() ? TaskWriteBehind.getInstance() : null;
+        if (writeBehind != null) {
+            writeBehind.setFailureHandler((failed, error) -> Platform.runLater(() -> {
+                showAlert("Error", "Failed to save " + failed.size() + " task change(s): "
+                    + error.getMessage(), AlertType.ERROR);
+                loadUserTasks(); // show what was actually stored
+            }));
+        }
+        if (syncEngine != null) {
+            syncEngine.setListener(new SyncListener());
+            updateSyncStatus(syncEngine.getPendingCount(), syncEngine.isOnline());
+        }
+    }
+    
+    /**
+     * Stops the periodic refresh; used at shutdown.
+     */
+    public void shutdown() {
+        if (refreshTimer != null) {
+            refreshTimer.stop();
+        }
+    }
+    
+    // Called on the sync thread
+    private class SyncListener implements TaskSyncEngine.Listener {
+        @Override
+        public void idsAssigned(Map<Integer, Integer> assignedIds) {
+            Platform.runLater(() -> {
+                for (Task task : tasks) {
+                    Integer storedId = assignedIds.get(task.getId());
+                    if (storedId != null) {
+                        int temporaryId = task.getId();
+                        task.setId(storedId);
+                        changeSearchIndex(index -> {
+                            index.remove(temporaryId);
+                            index.update(task);
+                        });
+                    }
+                }
+            });
+        }
+        
+        @Override
+        public void conflicts(List<TaskMutation> rejected) {
+            Platform.runLater(() -> {
+                syncStatus.set(rejected.size() + " change(s) replaced by newer edits");
+                loadUserTasks(); // show what was actually stored
+            });
+        }
+        
+        @Override
+        public void statusChanged(int pendingChanges, boolean online) {
+            Platform.runLater(() -> updateSyncStatus(pendingChanges, online));
+        }
+    }
+    
+    private void updateSyncStatus(int pendingChanges, boolean online) {
+        if (!online) {
+            syncStatus.set("Offline: " + pendingChanges + " change(s) saved locally");
+        } else if (pendingChanges > 0) {
+            syncStatus.set("Syncing " + pendingChanges + " change(s)");
+        } else {
+            syncStatus.set("");
+        }
+    }
+    
+    // Empty unless local-first mode has changes waiting or the database is unreachable
+    public ReadOnlyStringProperty syncStatusProperty() {
+        return syncStatus.getReadOnlyProperty();
     }
     
     public void setCurrentUser(User user) {
+        if (writeBehind != null && writeBehind.hasPending()) {
+            asyncDatabase.run(writeBehind::flush);
+        }
         this.currentUser = user;
+        synchronized (searchIndexLock) {
+            searchIndex.rebuild(List.of());
+            searchIndexReady = false;
+            searchIndexVersion++; // a build for the previous user is dropped
+        }
+        watermark = null;
+        listVersion++;
+        if (user == null) {
+            tasks.clear();
+            return;
+        }
+        LocalDateTime expired = LocalDateTime.now().minusDays(tombstoneRetentionDays);
+        asyncDatabase.run(() -> databaseService.pruneTaskTombstones(user.getId(), expired));
         loadUserTasks();
     }
     
@@ -35,170 +232,733 @@ public class TaskController {
         return tasks;
     }
     
-    public void loadUserTasks() {
-        if (currentUser != null) {
-            List<Task> userTasks = databaseService.getUserTasks(currentUser.getId());
-            tasks.clear();
-            tasks.addAll(userTasks);
+    public BooleanBinding busyProperty() {
+        return busy;
+    }
+    
+    /**
+     * Runs a database call off the FX thread. Back on the FX thread, onSuccess
+     * receives the result; on failure an alert is shown and the future
+     * completes with fallback instead. Buffered task edits are written first,
+     * so the call sees them. The action is timed until onSuccess has run.
+     */
+    private <T, R> CompletableFuture<R> inBackground(String action, Supplier<T> call, Function<T, R> onSuccess,
+                                                    R fallback, String errorMessage) {
+        long start = System.nanoTime();
+        pendingOperations.set(pendingOperations.get() + 1);
+        return asyncDatabase.supply(() -> {
+            flushPendingWrites();
+            return call.get();
+        }).handleAsync((result, error) -> {
+            pendingOperations.set(pendingOperations.get() - 1);
+            if (error != null) {
+                metrics.recordSince(ACTIONS + action, start, true);
+                showAlert("Error", errorMessage + ": " + AsyncDatabaseService.rootCause(error).getMessage(), AlertType.ERROR);
+                return fallback;
+            }
+            R value = onSuccess.apply(result);
+            metrics.recordSince(ACTIONS + action, start, false);
+            return value;
+        }, Platform::runLater);
+    }
+    
+    private void flushPendingWrites() {
+        if (writeBehind != null && writeBehind.hasPending()) {
+            writeBehind.flush();
+        }
+        // Best effort: while offline, reads show the journaled changes on top of what they load
+        if (syncEngine != null && syncEngine.hasPending() && syncEngine.isOnline()) {
+            syncEngine.syncNow();
         }
     }
     
-    public void loadTasksByStatus(boolean completed) {
-        if (currentUser != null) {
-            List<Task> filteredTasks = databaseService.getUserTasksByStatus(currentUser.getId(), completed);
-            tasks.clear();
-            tasks.addAll(filteredTasks);
+    /**
+     * Local-first mode: applies the user's journaled changes not stored yet to
+     * tasks just read from the database. New tasks are only added to the
+     * default view, since they may not match a filter.
+     */
+    private List<Task> withLocalChanges(int userId, List<Task> loaded, boolean includeCreated) {
+        if (syncEngine == null || !syncEngine.hasPending()) {
+            return loaded;
         }
+        Map<Integer, Task> byId = new LinkedHashMap<>();
+        loaded.forEach(task -> byId.put(task.getId(), task));
+        List<Task> merged = new ArrayList<>();
+        for (TaskMutation change : syncEngine.getPendingChanges(userId)) {
+            Task task = byId.get(change.getTaskId());
+            switch (change.getType()) {
+                case CREATE:
+                    if (includeCreated) {
+                        Task created = change.toTask(currentUser);
+                        created.setId(change.getTaskId());
+                        merged.add(0, created); // newest first
+                    }
+                    break;
+                case UPDATE:
+                    if (task != null) {
+                        change.applyTo(task);
+                        task.takeDirtyFields(); // already journaled
+                    }
+                    break;
+                case DELETE:
+                    byId.remove(change.getTaskId());
+                    break;
+                default:
+                    break;
+            }
+        }
+        merged.addAll(byId.values());
+        return merged;
     }
     
-    public void loadTasksByPriority(String priority) {
-        if (currentUser != null) {
-            List<Task> filteredTasks = databaseService.getUserTasksByPriority(currentUser.getId(), priority);
-            tasks.clear();
-            tasks.addAll(filteredTasks);
+    /**
+     * Local-first mode: journals the tasks' unsaved changes. On failure the
+     * changes stay marked unsaved, an alert is shown and false is returned.
+     */
+    private boolean recordChanges(List<Task> edited, String errorMessage) {
+        int userId = currentUser.getId();
+        Map<Task, Set<Task.Field>> changes = new LinkedHashMap<>();
+        for (Task task : edited) {
+            Set<Task.Field> fields = task.takeDirtyFields();
+            if (!fields.isEmpty()) {
+                changes.put(task, fields);
+            }
+        }
+        List<TaskMutation> mutations = new ArrayList<>();
+        changes.forEach((task, fields) -> mutations.add(TaskMutation.updated(task, userId, fields)));
+        if (!record(mutations, errorMessage)) {
+            changes.forEach(Task::restoreDirtyFields);
+            return false;
+        }
+        return true;
+    }
+    
+    private boolean record(List<TaskMutation> mutations, String errorMessage) {
+        try {
+            mutations.forEach(syncEngine::record);
+            return true;
+        } catch (RuntimeException e) {
+            showAlert("Error", errorMessage + ": " + e.getMessage(), AlertType.ERROR);
+            return false;
         }
     }
     
-    public void addTask(String title, String description, String priority, LocalDate deadline) {
+    public CompletableFuture<Void> loadUserTasks() {
+        User user = currentUser;
+        if (user == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        // Taken before the read, by the clock the rows are stamped with, so a delta
+        // refresh also sees edits made while it runs
+        AtomicReference<LocalDateTime> readAt = new AtomicReference<>();
+        if (pagingEnabled) {
+            return inBackground("loadUserTasks", () -> {
+                readAt.set(databaseService.getDatabaseTime());
+                return databaseService.getUserTasksPage(user.getId(), null, pageSize);
+            }, page -> {
+                watermark = readAt.get();
+                listVersion++;
+                paged = true;
+                hasNewer = false;
+                hasOlder = page.hasMore();
+                showingAllTasks = !hasOlder;
+                reconciler.reconcile(withLocalChanges(user.getId(), page.getTasks(), true));
+                return null;
+            }, null, "Failed to load tasks");
+        }
+        return inBackground("loadUserTasks", () -> {
+            readAt.set(databaseService.getDatabaseTime());
+            return withLocalChanges(user.getId(), databaseService.getUserTasks(user.getId()), true);
+        }, userTasks -> {
+            watermark = readAt.get();
+            listVersion++;
+            paged = false;
+            showingAllTasks = true;
+            reconciler.reconcile(userTasks);
+            return null;
+        }, null, "Failed to load tasks");
+    }
+    
+    /**
+     * Brings the default view up to date, reading only the tasks changed and
+     * deleted since it was last read. Anything else (a query result, or a read
+     * older than the tombstones kept) is reloaded in full.
+     */
+    public CompletableFuture<Void> refresh() {
         if (currentUser == null) {
-            showAlert("Error", "No user logged in", AlertType.ERROR);
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!canRefreshChanges()) {
+            return loadUserTasks();
+        }
+        return refreshChanges(true).thenApply(changes -> null);
+    }
+    
+    private boolean canRefreshChanges() {
+        return watermark != null && watermark.isAfter(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+    }
+    
+    // Timer tick on the FX thread; skipped while the user waits on something else
+    private void refreshInBackground() {
+        if (currentUser == null || refreshing || pendingOperations.get() > 0 || !canRefreshChanges()) {
             return;
         }
+        refreshing = true;
+        refreshChanges(false).whenComplete((changes, error) -> refreshing = false);
+    }
+    
+    /**
+     * Reads the changes since the watermark (less the overlap) and merges them
+     * into the list. A manual refresh shows progress and errors; a background
+     * one only logs a failure. Completes with the number of list changes.
+     */
+    private CompletableFuture<Integer> refreshChanges(boolean manual) {
+        User user = currentUser;
+        int version = listVersion;
+        LocalDateTime since = watermark.minus(refreshOverlap);
+        Supplier<TaskDelta> read = () -> databaseService.getTasksChangedSince(user.getId(), since);
+        Function<TaskDelta, Integer> apply = delta -> {
+            if (version != listVersion) {
+                return 0; // reloaded or switched views meanwhile
+            }
+            watermark = delta.getReadAt();
+            return applyDelta(user, delta);
+        };
+        if (manual) {
+            return inBackground("refresh", read, apply, 0, "Failed to refresh tasks");
+        }
+        long start = System.nanoTime();
+        return asyncDatabase.supply(() -> {
+            flushPendingWrites();
+            return read.get();
+        }).handleAsync((delta, error) -> {
+            if (error != null) {
+                metrics.recordSince(ACTIONS + "backgroundRefresh", start, true);
+                System.err.println("Background task refresh failed: " + AsyncDatabaseService.rootCause(error).getMessage());
+                return 0;
+            }
+            int applied = apply.apply(delta);
+            metrics.recordSince(ACTIONS + "backgroundRefresh", start, false);
+            return applied;
+        }, Platform::runLater);
+    }
+    
+    /**
+     * Replaces changed rows, drops deleted ones and inserts new ones at their
+     * place in the display order. In a paged window, new rows beyond either
+     * end are left for the page that covers them.
+     */
+    private int applyDelta(User user, TaskDelta delta) {
+        List<Task> changed = withLocalChanges(user.getId(), delta.getChanged(), false);
+        if (changed.isEmpty() && delta.getDeletedIds().isEmpty()) {
+            return 0;
+        }
+        Map<Integer, Task> fresh = new LinkedHashMap<>();
+        changed.forEach(task -> fresh.put(task.getId(), task));
+        Set<Integer> deleted = new HashSet<>(delta.getDeletedIds());
+        
+        List<Task> result = new ArrayList<>(tasks.size() + fresh.size());
+        for (Task task : tasks) {
+            if (!deleted.contains(task.getId())) {
+                Task replacement = fresh.remove(task.getId());
+                result.add(replacement != null ? replacement : task);
+            }
+        }
+        Task first = result.isEmpty() ? null : result.get(0);
+        Task last = result.isEmpty() ? null : result.get(result.size() - 1);
+        for (Task task : fresh.values()) {
+            boolean aboveWindow = hasNewerTasks() && (first == null || NEWEST_FIRST.compare(task, first) < 0);
+            boolean belowWindow = hasOlderTasks() && (last == null || NEWEST_FIRST.compare(task, last) > 0);
+            if (!aboveWindow && !belowWindow) {
+                int index = Collections.binarySearch(result, task, NEWEST_FIRST);
+                result.add(index < 0 ? -index - 1 : index, task);
+            }
+        }
+        
+        changeSearchIndex(index -> deleted.forEach(index::remove));
+        for (Task task : changed) {
+            if (!task.isDescriptionLoaded()) {
+                // Only a preview was read; rebuild on the next search
+                synchronized (searchIndexLock) {
+                    searchIndexReady = false;
+                    searchIndexVersion++;
+                }
+            } else {
+                changeSearchIndex(index -> index.update(task));
+            }
+        }
+        return reconciler.reconcile(result);
+    }
+    
+    public boolean isPaged() {
+        return paged;
+    }
+    
+    public boolean hasOlderTasks() {
+        return paged && hasOlder;
+    }
+    
+    public boolean hasNewerTasks() {
+        return paged && hasNewer;
+    }
+    
+    /**
+     * Appends the next page of older tasks. Completes with the number of rows
+     * dropped from the top of the window to keep it bounded.
+     */
+    public CompletableFuture<Integer> loadNextPage() {
+        if (currentUser == null || !hasOlderTasks() || tasks.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        int userId = currentUser.getId();
+        TaskCursor last = TaskCursor.of(tasks.get(tasks.size() - 1));
+        return inBackground("loadNextPage", () -> databaseService.getUserTasksPage(userId, last, pageSize), page -> {
+            hasOlder = page.hasMore();
+            tasks.addAll(page.getTasks());
+            
+            int overflow = tasks.size() - windowSize;
+            if (overflow > 0) {
+                tasks.remove(0, overflow);
+                hasNewer = true;
+                showingAllTasks = false;
+            }
+            return Math.max(overflow, 0);
+        }, 0, "Failed to load tasks");
+    }
+    
+    /**
+     * Prepends the page of newer tasks above the window. Completes with the
+     * number of rows inserted at the top.
+     */
+    public CompletableFuture<Integer> loadPreviousPage() {
+        if (currentUser == null || !hasNewerTasks() || tasks.isEmpty()) {
+            return CompletableFuture.completedFuture(0);
+        }
+        int userId = currentUser.getId();
+        TaskCursor first = TaskCursor.of(tasks.get(0));
+        return inBackground("loadPreviousPage", () -> databaseService.getUserTasksPageBefore(userId, first, pageSize), page -> {
+            hasNewer = page.hasMore();
+            tasks.addAll(0, page.getTasks());
+            
+            int overflow = tasks.size() - windowSize;
+            if (overflow > 0) {
+                tasks.remove(tasks.size() - overflow, tasks.size());
+                hasOlder = true;
+                showingAllTasks = false;
+            }
+            return page.getTasks().size();
+        }, 0, "Failed to load tasks");
+    }
+    
+    public CompletableFuture<Void> loadTasksByStatus(boolean completed) {
+        return applyQuery(new TaskQuery().completed(completed));
+    }
+    
+    public CompletableFuture<Void> loadTasksByPriority(String priority) {
+        return applyQuery(new TaskQuery().priority(priority));
+    }
+    
+    /**
+     * Shows the tasks matching every criterion of the query. An unfiltered
+     * query falls back to the regular (paged) task list.
+     */
+    public CompletableFuture<Void> applyQuery(TaskQuery query) {
+        if (currentUser == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (isDefaultView(query)) {
+            return loadUserTasks();
+        }
+        return inBackground("applyQuery", () -> queryTasks(query), matching -> {
+            showQueryResult(matching);
+            return null;
+        }, null, "Failed to load tasks");
+    }
+    
+    public boolean isDefaultView(TaskQuery query) {
+        return query.isUnfiltered() && query.getSort() == TaskQuery.Sort.CREATED_DESC;
+    }
+    
+    /**
+     * Runs a filtered query without touching the task list, so it can be
+     * called off the FX thread. Publish the result with showQueryResult().
+     */
+    public List<Task> queryTasks(TaskQuery query) {
+        User user = currentUser;
+        if (user == null) {
+            return List.of();
+        }
+        if (query.hasText() && searchIndexEnabled) {
+            // Text search is an index lookup; the remaining criteria are applied in memory
+            List<Task> found = searchIndexed(user, query.getText());
+            if (found != null) {
+                List<Task> matching = found.stream()
+                    .filter(query::matchesFilters)
+                    .collect(Collectors.toList());
+                if (query.getSort() != TaskQuery.Sort.CREATED_DESC) {
+                    matching.sort(query.comparator());
+                }
+                return matching;
+            }
+        }
+        flushPendingWrites();
+        return withLocalChanges(user.getId(), databaseService.findTasks(user.getId(), query), false);
+    }
+    
+    public void showQueryResult(List<Task> matching) {
+        watermark = null;
+        listVersion++;
+        paged = false;
+        showingAllTasks = false;
+        reconciler.reconcile(matching);
+    }
+    
+    /**
+     * Searches the user's tasks in the index, building it first if needed.
+     * Returns null when the build was overtaken (the user changed, or the list
+     * changed while the tasks were read); the database search, which matches
+     * text the same way, is used instead.
+     */
+    private List<Task> searchIndexed(User user, String text) {
+        int version;
+        synchronized (searchIndexLock) {
+            if (user != currentUser) {
+                return null;
+            }
+            if (searchIndexReady) {
+                return searchIndex.search(text);
+            }
+            version = searchIndexVersion;
+        }
+        List<Task> all = databaseService.getUserTasksWithDescriptions(user.getId());
+        synchronized (searchIndexLock) {
+            if (version != searchIndexVersion || user != currentUser) {
+                return null;
+            }
+            searchIndex.rebuild(all);
+            searchIndexReady = true;
+            return searchIndex.search(text);
+        }
+    }
+    
+    // Applies a change to the index; while it is not built, a build in progress may
+    // have read the tasks before the change, so it is dropped
+    private void changeSearchIndex(Consumer<TaskSearchIndex> change) {
+        synchronized (searchIndexLock) {
+            if (searchIndexReady) {
+                change.accept(searchIndex);
+            } else {
+                searchIndexVersion++;
+            }
+        }
+    }
+    
+    // Keeps the search index and the stats in step with a task edited in place
+    private void onTaskEdited(Task task) {
+        stats.refresh(task);
+        changeSearchIndex(index -> index.update(task));
+    }
+    
+    public CompletableFuture<Void> addTask(String title, String description, String priority, LocalDate deadline) {
+        if (currentUser == null) {
+            showAlert("Error", "No user logged in", AlertType.ERROR);
+            return CompletableFuture.completedFuture(null);
+        }
         
         if (title == null || title.trim().isEmpty()) {
             showAlert("Error", "Task title is required", AlertType.ERROR);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
-        try {
-            Task task = new Task(
-                title.trim(),
-                description != null ? description.trim() : "",
-                priority != null ? priority : "Medium",
-                deadline,
-                false,
-                currentUser
-            );
-            
-            databaseService.saveTask(task);
-            tasks.add(0, task); // Add to beginning of list
+        Task task = new Task(
+            title.trim(),
+            description != null ? description.trim() : "",
+            priority != null ? priority : "Medium",
+            deadline,
+            false,
+            currentUser
+        );
+        
+        if (syncEngine != null) {
+            task.setId(syncEngine.nextTemporaryId());
+            if (record(List.of(TaskMutation.created(task, currentUser.getId())), "Failed to add task")) {
+                tasks.add(0, task);
+                onTaskEdited(task);
+                showAlert("Success", "Task added successfully", AlertType.INFORMATION);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return inBackground("addTask", () -> databaseService.saveTask(task), saved -> {
+            tasks.add(0, saved); // Add to beginning of list
+            onTaskEdited(saved);
             showAlert("Success", "Task added successfully", AlertType.INFORMATION);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to add task: " + e.getMessage(), AlertType.ERROR);
+            return null;
+        }, null, "Failed to add task");
+    }
+    
+    /**
+     * Fetches the full description of a task read by a list query, which only
+     * carries a preview. Completes immediately if it is already loaded.
+     */
+    public CompletableFuture<Task> loadDescription(Task task) {
+        if (task.isDescriptionLoaded()) {
+            return CompletableFuture.completedFuture(task);
         }
+        return inBackground("loadDescription", () -> databaseService.getTaskDescription(task.getId()), description -> {
+            task.setLoadedDescription(description);
+            return task;
+        }, null, "Failed to load task");
     }
     
-    public void updateTask(Task task) {
+    public CompletableFuture<Void> updateTask(Task task) {
         if (currentUser == null) {
             showAlert("Error", "No user logged in", AlertType.ERROR);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
-        try {
-            databaseService.updateTask(task);
+        if (syncEngine != null) {
+            if (recordChanges(List.of(task), "Failed to update task")) {
+                onTaskEdited(task);
+                showAlert("Success", "Task updated successfully", AlertType.INFORMATION);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return inBackground("updateTask", () -> databaseService.updateTask(task), updated -> {
+            onTaskEdited(task);
             // The task is already in the observable list, so it will update automatically
             showAlert("Success", "Task updated successfully", AlertType.INFORMATION);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to update task: " + e.getMessage(), AlertType.ERROR);
-        }
+            return null;
+        }, null, "Failed to update task");
     }
     
-    public void deleteTask(Task task) {
+    public CompletableFuture<Void> deleteTask(Task task) {
         if (currentUser == null) {
             showAlert("Error", "No user logged in", AlertType.ERROR);
-            return;
+            return CompletableFuture.completedFuture(null);
         }
         
-        try {
+        if (syncEngine != null) {
+            if (record(List.of(TaskMutation.deleted(task.getId(), currentUser.getId())), "Failed to delete task")) {
+                reconciler.remove(task.getId());
+                changeSearchIndex(index -> index.remove(task.getId()));
+                showAlert("Success", "Task deleted successfully", AlertType.INFORMATION);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        return inBackground("deleteTask", () -> {
             databaseService.deleteTask(task.getId());
-            tasks.remove(task);
+            return task;
+        }, deleted -> {
+            reconciler.remove(deleted.getId());
+            changeSearchIndex(index -> index.remove(deleted.getId()));
             showAlert("Success", "Task deleted successfully", AlertType.INFORMATION);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to delete task: " + e.getMessage(), AlertType.ERROR);
+            return null;
+        }, null, "Failed to delete task");
+    }
+    
+    public CompletableFuture<Void> toggleTaskCompletion(Task task) {
+        if (currentUser == null) {
+            showAlert("Error", "No user logged in", AlertType.ERROR);
+            return CompletableFuture.completedFuture(null);
+        }
+        
+        // Flip right away so the table reflects the click; persist in the background
+        task.setCompleted(!task.isCompleted());
+        onTaskEdited(task);
+        if (syncEngine != null) {
+            recordChanges(List.of(task), "Failed to update task");
+            return CompletableFuture.completedFuture(null);
+        }
+        if (writeBehind != null) {
+            // Rapid clicks are coalesced and written together; failures reach the failure handler
+            return writeBehind.enqueue(task).handleAsync((result, error) -> null, Platform::runLater);
         }
+        return inBackground("toggleTaskCompletion", () -> databaseService.updateTask(task), updated -> null,
+            null, "Failed to update task");
     }
     
-    public void toggleTaskCompletion(Task task) {
+    public CompletableFuture<Void> searchTasks(String searchTerm) {
+        return applyQuery(new TaskQuery().text(searchTerm));
+    }
+    
+    public CompletableFuture<Integer> clearCompletedTasks() {
         if (currentUser == null) {
             showAlert("Error", "No user logged in", AlertType.ERROR);
-            return;
+            return CompletableFuture.completedFuture(0);
         }
         
-        try {
-            task.setCompleted(!task.isCompleted());
-            databaseService.updateTask(task);
-            // The task is already in the observable list, so it will update automatically
-        } catch (Exception e) {
-            showAlert("Error", "Failed to update task: " + e.getMessage(), AlertType.ERROR);
+        int userId = currentUser.getId();
+        if (syncEngine != null && showingAllTasks) {
+            // Every task is in the list, so the completed ones can be deleted locally
+            List<Task> completed = tasks.stream().filter(Task::isCompleted).collect(Collectors.toList());
+            return deleteLocally(completed, "Failed to clear completed tasks");
         }
+        return inBackground("clearCompletedTasks", () -> databaseService.deleteCompletedTasks(userId), deleted -> {
+            tasks.removeIf(Task::isCompleted);
+            changeSearchIndex(index -> index.removeIf(Task::isCompleted));
+            return deleted;
+        }, 0, "Failed to clear completed tasks");
     }
     
-    public void searchTasks(String searchTerm) {
+    // Bulk operations on a selection; each completes with the number of rows affected
+    public CompletableFuture<Integer> setTasksCompleted(List<Task> selected, boolean completed) {
         if (currentUser == null) {
-            return;
+            showAlert("Error", "No user logged in", AlertType.ERROR);
+            return CompletableFuture.completedFuture(0);
         }
         
-        if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            loadUserTasks();
-            return;
+        if (syncEngine != null) {
+            return updateLocally(selected, task -> task.setCompleted(completed), "Failed to update tasks");
         }
         
-        List<Task> allTasks = databaseService.getUserTasks(currentUser.getId());
-        List<Task> filteredTasks = allTasks.stream()
-            .filter(task -> 
-                task.getTitle().toLowerCase().contains(searchTerm.toLowerCase()) ||
-                (task.getDescription() != null && 
-                 task.getDescription().toLowerCase().contains(searchTerm.toLowerCase()))
-            )
-            .collect(Collectors.toList());
+        int userId = currentUser.getId();
+        List<Integer> ids = idsOf(selected);
+        return inBackground("setTasksCompleted", () -> databaseService.setTasksCompleted(userId, ids, completed), updated -> {
+            selected.forEach(task -> {
+                task.setCompleted(completed);
+                task.markClean(Task.Field.COMPLETED);
+                onTaskEdited(task);
+            });
+            return updated;
+        }, 0, "Failed to update tasks");
+    }
+    
+    public CompletableFuture<Integer> setTasksPriority(List<Task> selected, String priority) {
+        if (currentUser == null) {
+            showAlert("Error", "No user logged in", AlertType.ERROR);
+            return CompletableFuture.completedFuture(0);
+        }
         
-        tasks.clear();
-        tasks.addAll(filteredTasks);
+        if (syncEngine != null) {
+            return updateLocally(selected, task -> task.setPriority(priority), "Failed to update tasks");
+        }
+        
+        int userId = currentUser.getId();
+        List<Integer> ids = idsOf(selected);
+        return inBackground("setTasksPriority", () -> databaseService.setTasksPriority(userId, ids, priority), updated -> {
+            selected.forEach(task -> {
+                task.setPriority(priority);
+                task.markClean(Task.Field.PRIORITY);
+                onTaskEdited(task);
+            });
+            return updated;
+        }, 0, "Failed to update tasks");
     }
     
-    public void clearCompletedTasks() {
+    public CompletableFuture<Integer> setTasksDeadline(List<Task> selected, LocalDate deadline) {
         if (currentUser == null) {
             showAlert("Error", "No user logged in", AlertType.ERROR);
-            return;
+            return CompletableFuture.completedFuture(0);
         }
         
-        try {
-            List<Task> completedTasks = databaseService.getUserTasksByStatus(currentUser.getId(), true);
-            for (Task task : completedTasks) {
-                databaseService.deleteTask(task.getId());
-            }
-            loadUserTasks(); // Reload all tasks
-            showAlert("Success", "Completed tasks cleared successfully", AlertType.INFORMATION);
-        } catch (Exception e) {
-            showAlert("Error", "Failed to clear completed tasks: " + e.getMessage(), AlertType.ERROR);
+        if (syncEngine != null) {
+            return updateLocally(selected, task -> task.setDeadline(deadline), "Failed to reschedule tasks");
+        }
+        
+        int userId = currentUser.getId();
+        List<Integer> ids = idsOf(selected);
+        return inBackground("setTasksDeadline", () -> databaseService.setTasksDeadline(userId, ids, deadline), updated -> {
+            selected.forEach(task -> {
+                task.setDeadline(deadline);
+                task.markClean(Task.Field.DEADLINE);
+                onTaskEdited(task);
+            });
+            return updated;
+        }, 0, "Failed to reschedule tasks");
+    }
+    
+    public CompletableFuture<Integer> deleteTasks(List<Task> selected) {
+        if (currentUser == null) {
+            showAlert("Error", "No user logged in", AlertType.ERROR);
+            return CompletableFuture.completedFuture(0);
+        }
+        
+        if (syncEngine != null) {
+            return deleteLocally(selected, "Failed to delete tasks");
+        }
+        
+        int userId = currentUser.getId();
+        List<Integer> ids = idsOf(selected);
+        return inBackground("deleteTasks", () -> databaseService.deleteTasks(userId, ids), deleted -> {
+            tasks.removeAll(new HashSet<>(selected));
+            changeSearchIndex(index -> selected.forEach(task -> index.remove(task.getId())));
+            return deleted;
+        }, 0, "Failed to delete tasks");
+    }
+    
+    // Local-first bulk operations: applied to the list at once and journaled
+    private CompletableFuture<Integer> updateLocally(List<Task> selected, Consumer<Task> edit, String errorMessage) {
+        selected.forEach(task -> {
+            edit.accept(task);
+            onTaskEdited(task);
+        });
+        if (!recordChanges(selected, errorMessage)) {
+            loadUserTasks();
+            return CompletableFuture.completedFuture(0);
+        }
+        return CompletableFuture.completedFuture(selected.size());
+    }
+    
+    private CompletableFuture<Integer> deleteLocally(List<Task> selected, String errorMessage) {
+        int userId = currentUser.getId();
+        List<TaskMutation> deletes = selected.stream()
+            .map(task -> TaskMutation.deleted(task.getId(), userId))
+            .collect(Collectors.toList());
+        if (!record(deletes, errorMessage)) {
+            return CompletableFuture.completedFuture(0);
+        }
+        tasks.removeAll(new HashSet<>(selected));
+        changeSearchIndex(index -> selected.forEach(task -> index.remove(task.getId())));
+        return CompletableFuture.completedFuture(selected.size());
+    }
+    
+    private List<Integer> idsOf(List<Task> selected) {
+        return selected.stream().map(Task::getId).collect(Collectors.toList());
+    }
+    
+    /**
+     * True when the list holds every task of the user, so its counts are the user's totals.
+     */
+    public boolean isShowingAllTasks() {
+        return showingAllTasks;
+    }
+    
+    // Counts for the tasks currently in the list, maintained incrementally
+    public TaskStats getListStats() {
+        return stats.snapshot();
+    }
+    
+    // The user's totals across all tasks, from one aggregate query
+    public CompletableFuture<TaskStats> loadTaskStats() {
+        User user = currentUser;
+        if (user == null) {
+            return CompletableFuture.completedFuture(new TaskStats(0, 0, 0, 0));
         }
+        return inBackground("loadTaskStats", () -> databaseService.getTaskStats(user.getId()), Function.identity(),
+            null, "Failed to load task statistics");
     }
     
     public int getTaskCount() {
-        return tasks.size();
+        return stats.snapshot().getTotal();
     }
     
     public int getCompletedTaskCount() {
-        return (int) tasks.stream().filter(Task::isCompleted).count();
+        return stats.snapshot().getCompleted();
     }
     
     public int getPendingTaskCount() {
-        return (int) tasks.stream().filter(task -> !task.isCompleted()).count();
+        return stats.snapshot().getPending();
     }
     
     public int getHighPriorityTaskCount() {
-        return (int) tasks.stream()
-            .filter(task -> "High".equals(task.getPriority()) && !task.isCompleted())
-            .count();
+        return stats.snapshot().getHighPriority();
     }
     
     public int getOverdueTaskCount() {
-        LocalDate today = LocalDate.now();
-        return (int) tasks.stream()
-            .filter(task -> !task.isCompleted() && 
-                           task.getDeadline() != null && 
-                           task.getDeadline().isBefore(today))
-            .count();
+        return stats.snapshot().getOverdue();
     }
     
     private void showAlert(String title, String message, AlertType type) {
@@ -0,0 +1,191 @@
+package com.taskmanager.controller;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.taskmanager.entity.Task;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * Brings an ObservableList of tasks in line with a fresh query result using
+ * the fewest list changes, matching rows by task id: rows that are gone are
+ * removed in one change, new rows are inserted in runs, rows whose fields
+ * changed are replaced where they are, and rows that are unchanged keep their
+ * instance, so the table keeps their cells, the selection and the scroll
+ * position. A result in a mostly different order is applied with one setAll().
+ *
+ * Rows are found by id through an id-to-index map kept alongside the list.
+ * A list change only invalidates the entries from the first changed index on,
+ * and those are re-indexed lazily, as far as the next lookup needs.
+ */
+public class TaskListReconciler {
+    // Past this many moved rows a single setAll() is cheaper than moving them one by one
+    private static final int MAX_MOVES = 32;
+
+    private final ObservableList<Task> tasks;
+
+    // Task id -> index in the list; entries below indexedUpTo are current
+    private final Map<Integer, Integer> positions = new HashMap<>();
+    private int indexedUpTo;
+
+    public TaskListReconciler(ObservableList<Task> tasks) {
+        this.tasks = tasks;
+        tasks.addListener((ListChangeListener<Task>) this::onChanged);
+    }
+
+    private void onChanged(ListChangeListener.Change<? extends Task> change) {
+        while (change.next()) {
+            indexedUpTo = Math.min(indexedUpTo, change.getFrom());
+            for (Task removed : change.getRemoved()) {
+                // A current entry still points at another row with the same id
+                Integer index = positions.get(removed.getId());
+                if (index != null && index >= indexedUpTo) {
+                    positions.remove(removed.getId());
+                }
+            }
+        }
+    }
+
+    /**
+     * The index of the task with the given id, or -1 if it is not in the list.
+     */
+    public int indexOf(int taskId) {
+        int index = find(taskId);
+        if (index < 0 && !positions.isEmpty()) {
+            // Ids can change in place (a temporary id replaced by the stored one), so index afresh
+            positions.clear();
+            indexedUpTo = 0;
+            index = find(taskId);
+        }
+        return index;
+    }
+
+    private int find(int taskId) {
+        Integer index = positions.get(taskId);
+        if (index != null && index < indexedUpTo && tasks.get(index).getId() == taskId) {
+            return index;
+        }
+        while (indexedUpTo < tasks.size()) {
+            int id = tasks.get(indexedUpTo).getId();
+            positions.put(id, indexedUpTo);
+            if (id == taskId) {
+                return indexedUpTo++;
+            }
+            indexedUpTo++;
+        }
+        return -1;
+    }
+
+    /**
+     * Removes the task with the given id from the list. Returns the removed
+     * instance, or null if it was not in the list.
+     */
+    public Task remove(int taskId) {
+        int index = indexOf(taskId);
+        return index < 0 ? null : tasks.remove(index);
+    }
+
+    /**
+     * Makes the list equal to {@code result}, row for row. Returns the number
+     * of list changes made.
+     */
+    public int reconcile(List<Task> result) {
+        if (tasks.isEmpty() || result.isEmpty()) {
+            if (tasks.isEmpty() && result.isEmpty()) {
+                return 0;
+            }
+            tasks.setAll(result);
+            return 1;
+        }
+
+        Map<Integer, Task> wanted = new HashMap<>(result.size() * 2);
+        for (Task task : result) {
+            wanted.put(task.getId(), task);
+        }
+        if (wanted.size() != result.size()) {
+            tasks.setAll(result); // repeated ids cannot be matched row by row
+            return 1;
+        }
+        int changes = 0;
+
+        // Indexes every row afresh; a repeated id is kept at its first row
+        Set<Task> gone = new HashSet<>();
+        Set<Integer> present = new HashSet<>(tasks.size() * 2);
+        positions.clear();
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            if (!wanted.containsKey(task.getId()) || !present.add(task.getId())) {
+                gone.add(task);
+            } else {
+                positions.put(task.getId(), i);
+            }
+        }
+        indexedUpTo = tasks.size();
+        if (!gone.isEmpty()) {
+            tasks.removeAll(gone);
+            changes++;
+        }
+
+        int moves = 0;
+        int i = 0;
+        while (i < result.size()) {
+            Task fresh = result.get(i);
+            Task current = i < tasks.size() ? tasks.get(i) : null;
+            if (current != null && current.getId() == fresh.getId()) {
+                if (current != fresh && !sameContent(current, fresh)) {
+                    tasks.set(i, fresh);
+                    changes++;
+                }
+                i++;
+            } else if (!present.contains(fresh.getId())) {
+                // A run of new rows goes in with one change
+                int end = i + 1;
+                while (end < result.size() && !present.contains(result.get(end).getId())) {
+                    end++;
+                }
+                tasks.addAll(i, result.subList(i, end));
+                changes++;
+                i = end;
+            } else {
+                if (++moves > MAX_MOVES) {
+                    tasks.setAll(result);
+                    return changes + 1;
+                }
+                int from = indexOf(fresh.getId());
+                if (from < 0) {
+                    throw new IllegalStateException("Task " + fresh.getId() + " is not in the list");
+                }
+                Task moved = tasks.remove(from);
+                tasks.add(i, sameContent(moved, fresh) ? moved : fresh);
+                changes += 2;
+                i++;
+            }
+        }
+        if (tasks.size() > result.size()) {
+            tasks.remove(result.size(), tasks.size());
+            changes++;
+        }
+        return changes;
+    }
+
+    /**
+     * Whether two instances of a task show the same thing.
+     */
+    private static boolean sameContent(Task a, Task b) {
+        return a.getId() == b.getId()
+            && a.isCompleted() == b.isCompleted()
+            && a.isDescriptionLoaded() == b.isDescriptionLoaded()
+            && Objects.equals(a.getTitle(), b.getTitle())
+            && Objects.equals(a.getPriority(), b.getPriority())
+            && Objects.equals(a.getDeadline(), b.getDeadline())
+            && Objects.equals(a.getDescription(), b.getDescription())
+            && Objects.equals(a.getCreatedAt(), b.getCreatedAt())
+            && Objects.equals(a.getUpdatedAt(), b.getUpdatedAt());
+    }
+}
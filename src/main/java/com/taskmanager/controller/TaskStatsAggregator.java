@@ -0,0 +1,121 @@
+package com.taskmanager.controller;
+
+import java.time.LocalDate;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.service.TaskStats;
+
+import javafx.collections.ListChangeListener;
+
+/**
+ * Keeps task counts for an ObservableList up to date from its change events,
+ * so reading them is O(1) and each change costs O(changed rows). Tasks edited
+ * in place must be reported through {@link #refresh(Task)}.
+ */
+public class TaskStatsAggregator implements ListChangeListener<Task> {
+    private static final int COMPLETED = 1;
+    private static final int HIGH_PRIORITY = 2;
+    private static final int OVERDUE = 4;
+
+    // What each task currently contributes, so removals and refreshes subtract exactly that
+    private final Map<Task, Integer> contributions = new IdentityHashMap<>();
+    private LocalDate today = LocalDate.now();
+    private int total;
+    private int completed;
+    private int highPriority;
+    private int overdue;
+
+    @Override
+    public void onChanged(Change<? extends Task> change) {
+        rollOverIfNewDay();
+        while (change.next()) {
+            if (change.wasPermutated()) {
+                continue;
+            }
+            if (change.wasUpdated()) {
+                for (int i = change.getFrom(); i < change.getTo(); i++) {
+                    refresh(change.getList().get(i));
+                }
+                continue;
+            }
+            for (Task task : change.getRemoved()) {
+                remove(task);
+            }
+            for (Task task : change.getAddedSubList()) {
+                add(task);
+            }
+        }
+    }
+
+    /**
+     * Re-counts a task whose fields changed without a list change event.
+     */
+    public void refresh(Task task) {
+        if (contributions.containsKey(task)) {
+            remove(task);
+            add(task);
+        }
+    }
+
+    public TaskStats snapshot() {
+        rollOverIfNewDay();
+        return new TaskStats(total, completed, highPriority, overdue);
+    }
+
+    private void add(Task task) {
+        int flags = flagsOf(task);
+        Integer previous = contributions.put(task, flags);
+        if (previous != null) {
+            apply(previous, -1); // same instance added twice; count it once
+        } else {
+            total++;
+        }
+        apply(flags, 1);
+    }
+
+    private void remove(Task task) {
+        Integer flags = contributions.remove(task);
+        if (flags != null) {
+            total--;
+            apply(flags, -1);
+        }
+    }
+
+    private void apply(int flags, int delta) {
+        if ((flags & COMPLETED) != 0) completed += delta;
+        if ((flags & HIGH_PRIORITY) != 0) highPriority += delta;
+        if ((flags & OVERDUE) != 0) overdue += delta;
+    }
+
+    private int flagsOf(Task task) {
+        if (task.isCompleted()) {
+            return COMPLETED;
+        }
+        int flags = 0;
+        if ("High".equals(task.getPriority())) {
+            flags |= HIGH_PRIORITY;
+        }
+        if (task.getDeadline() != null && task.getDeadline().isBefore(today)) {
+            flags |= OVERDUE;
+        }
+        return flags;
+    }
+
+    // Overdue depends on the date, so recount once when the day changes
+    private void rollOverIfNewDay() {
+        LocalDate now = LocalDate.now();
+        if (!now.equals(today)) {
+            today = now;
+            completed = 0;
+            highPriority = 0;
+            overdue = 0;
+            for (Map.Entry<Task, Integer> entry : contributions.entrySet()) {
+                int flags = flagsOf(entry.getKey());
+                entry.setValue(flags);
+                apply(flags, 1);
+            }
+        }
+    }
+}
@@ -3,14 +3,89 @@ package com.taskmanager.entity;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Entity
 @Table(name = "tasks")
+@NamedQuery(name = Task.LIST_BY_USER,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId ORDER BY t.createdAt DESC")
+@NamedQuery(name = Task.FIRST_PAGE,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId ORDER BY t.createdAt DESC, t.id DESC")
+@NamedQuery(name = Task.PAGE_AFTER,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId "
+        + "AND (t.createdAt < :createdAt OR (t.createdAt = :createdAt AND t.id < :id)) "
+        + "ORDER BY t.createdAt DESC, t.id DESC")
+@NamedQuery(name = Task.PAGE_BEFORE,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId "
+        + "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) "
+        + "ORDER BY t.createdAt ASC, t.id ASC")
+@NamedQuery(name = Task.BY_STATUS,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId AND t.completed = :completed ORDER BY t.createdAt DESC")
+@NamedQuery(name = Task.BY_PRIORITY,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId AND t.priority = :priority ORDER BY t.createdAt DESC")
+@NamedQuery(name = Task.CHANGED_SINCE,
+    query = Task.SUMMARY_SELECT + "WHERE t.user.id = :userId AND t.updatedAt > :since "
+        + "ORDER BY t.createdAt DESC, t.id DESC")
+@NamedQuery(name = Task.WITH_DESCRIPTIONS,
+    query = "FROM Task WHERE user.id = :userId ORDER BY createdAt DESC")
+@NamedQuery(name = Task.DESCRIPTION,
+    query = "SELECT t.description FROM Task t WHERE t.id = :id")
+@NamedQuery(name = Task.VERSIONS,
+    query = "SELECT t.id, t.user.id, t.editedAt FROM Task t WHERE t.id IN (:ids)")
+@NamedQuery(name = Task.STATS,
+    query = "SELECT count(t), "
+        + "sum(case when t.completed = true then 1 else 0 end), "
+        + "sum(case when t.completed = false and t.priority = 'High' then 1 else 0 end), "
+        + "sum(case when t.completed = false and t.deadline < :today then 1 else 0 end) "
+        + "FROM Task t WHERE t.user.id = :userId")
 public class Task {
 
+    // Named queries, parsed and checked once when the SessionFactory is built
+    public static final String LIST_BY_USER = "Task.listByUser";
+    public static final String FIRST_PAGE = "Task.firstPage";
+    public static final String PAGE_AFTER = "Task.pageAfter";
+    public static final String PAGE_BEFORE = "Task.pageBefore";
+    public static final String BY_STATUS = "Task.byStatus";
+    public static final String BY_PRIORITY = "Task.byPriority";
+    public static final String CHANGED_SINCE = "Task.changedSince";
+    public static final String WITH_DESCRIPTIONS = "Task.withDescriptions";
+    public static final String DESCRIPTION = "Task.description";
+    public static final String VERSIONS = "Task.versions";
+    public static final String STATS = "Task.stats";
+
+    // List queries select TaskSummary rows: the description is cut to :previewLength characters in SQL.
+    // SUBSTR of a CLOB is a CLOB on Oracle; the cast makes it a VARCHAR2, so rows carry no LOB locator
+    static final String SUMMARY_SELECT = "SELECT new com.taskmanager.service.TaskSummary(t.id, t.title, "
+        + "cast(substring(t.description, 1, :previewLength) as String), length(t.description), "
+        + "t.priority, t.deadline, t.completed, t.createdAt) FROM Task t ";
+
+    /**
+     * Editable columns, tracked so an update writes only what changed.
+     */
+    public enum Field {
+        TITLE("title"),
+        DESCRIPTION("description"),
+        PRIORITY("priority"),
+        DEADLINE("deadline"),
+        COMPLETED("completed");
+
+        private final String column;
+
+        Field(String column) {
+            this.column = column;
+        }
+
+        public String getColumn() { return column; }
+
+        int bit() { return 1 << ordinal(); }
+    }
+
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "task_seq")
-    @SequenceGenerator(name = "task_seq", sequenceName = "TASK_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "task_seq", sequenceName = "TASK_SEQ", allocationSize = 50)
     private int id;
 
     @Column(nullable = false)
@@ -27,16 +102,39 @@ public class Task {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
+    // When the last change was stored; delta refreshes read the rows updated since a point in time.
+    // Stamped by DatabaseService from the database clock in every write, never from this client's
+    // clock, so it follows commit order across clients. Tasks are written through DatabaseService
+    // only, never by flushing a managed entity.
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
     
+    // When the last change was made, which is earlier for changes synced from local-first mode;
+    // decides which of two conflicting edits wins
+    @Column(name = "edited_at")
+    private LocalDateTime editedAt;
+    
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
+    
+    // Fields changed through the setters since the last save; not persisted.
+    // Hibernate sets fields directly, so loading a task leaves it clean.
+    @Transient
+    private final AtomicInteger dirtyFields = new AtomicInteger();
+    
+    // False for tasks built from a list query, whose description is only a preview
+    @Transient
+    private boolean descriptionLoaded = true;
+
+    // Values the task table built for this task (TaskCellValues); not persisted
+    @Transient
+    private Object cellValues;
 
     public Task() {
         this.createdAt = LocalDateTime.now();
         this.updatedAt = LocalDateTime.now();
+        this.editedAt = updatedAt;
     }
 
     public Task(String title, String description, String priority, LocalDate deadline, boolean completed, User user) {
@@ -49,20 +147,64 @@ public class Task {
         this.user = user;
     }
 
+    public static Task fromSummary(int id, String title, String descriptionPreview, boolean descriptionComplete,
+                                   String priority, LocalDate deadline, boolean completed,
+                                   LocalDateTime createdAt, User user) {
+        Task task = new Task(title, descriptionPreview, priority, deadline, completed, user);
+        task.id = id;
+        task.createdAt = createdAt;
+        task.updatedAt = null;
+        task.editedAt = null;
+        task.descriptionLoaded = descriptionComplete;
+        return task;
+    }
+
     // Getters & Setters
     public int getId() { return id; }
+    // Local-first mode: a temporary id until the task is stored, then the stored one
+    public void setId(int id) { this.id = id; }
     public String getTitle() { return title; }
-    public void setTitle(String title) { this.title = title; }
+    public void setTitle(String title) {
+        if (!Objects.equals(this.title, title)) {
+            this.title = title;
+            markDirty(Field.TITLE);
+        }
+    }
     public String getDescription() { return description; }
-    public void setDescription(String description) { this.description = description; }
+    public void setDescription(String description) {
+        if (!Objects.equals(this.description, description)) {
+            this.description = description;
+            markDirty(Field.DESCRIPTION);
+        }
+    }
+    public boolean isDescriptionLoaded() { return descriptionLoaded; }
+    
+    // Replaces a preview with the stored description; not a change to save
+    public void setLoadedDescription(String description) {
+        this.description = description;
+        this.descriptionLoaded = true;
+    }
+    
     public String getPriority() { return priority; }
-    public void setPriority(String priority) { this.priority = priority; }
+    public void setPriority(String priority) {
+        if (!Objects.equals(this.priority, priority)) {
+            this.priority = priority;
+            markDirty(Field.PRIORITY);
+        }
+    }
     public LocalDate getDeadline() { return deadline; }
-    public void setDeadline(LocalDate deadline) { this.deadline = deadline; }
+    public void setDeadline(LocalDate deadline) {
+        if (!Objects.equals(this.deadline, deadline)) {
+            this.deadline = deadline;
+            markDirty(Field.DEADLINE);
+        }
+    }
     public boolean isCompleted() { return completed; }
     public void setCompleted(boolean completed) { 
-        this.completed = completed; 
-        this.updatedAt = LocalDateTime.now();
+        if (this.completed != completed) {
+            this.completed = completed;
+            markDirty(Field.COMPLETED);
+        }
     }
     
     public LocalDateTime getCreatedAt() { return createdAt; }
@@ -71,11 +213,54 @@ public class Task {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
     
+    public LocalDateTime getEditedAt() { return editedAt; }
+    public void setEditedAt(LocalDateTime editedAt) { this.editedAt = editedAt; }
+    
     public User getUser() { return user; }
     public void setUser(User user) { this.user = user; }
     
-    @PreUpdate
-    public void preUpdate() {
-        this.updatedAt = LocalDateTime.now();
+    public Object getCellValues() { return cellValues; }
+    public void setCellValues(Object cellValues) { this.cellValues = cellValues; }
+    
+    // Dirty tracking
+    private void markDirty(Field field) {
+        dirtyFields.getAndUpdate(bits -> bits | field.bit());
+    }
+    
+    public boolean isDirty() {
+        return dirtyFields.get() != 0;
+    }
+    
+    /**
+     * Returns the changed fields and marks them clean. Changes made after this
+     * call are tracked again, so a save in progress never loses a later edit.
+     */
+    public Set<Field> takeDirtyFields() {
+        return toFields(dirtyFields.getAndSet(0));
+    }
+    
+    // The column already holds the value (written by a bulk update); other changes stay dirty
+    public void markClean(Field field) {
+        dirtyFields.getAndUpdate(bits -> bits & ~field.bit());
+    }
+    
+    // Puts fields back after a failed save so the next save retries them
+    public void restoreDirtyFields(Set<Field> fields) {
+        int bits = 0;
+        for (Field field : fields) {
+            bits |= field.bit();
+        }
+        int restored = bits;
+        dirtyFields.getAndUpdate(current -> current | restored);
+    }
+    
+    private static Set<Field> toFields(int bits) {
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        for (Field field : Field.values()) {
+            if ((bits & field.bit()) != 0) {
+                fields.add(field);
+            }
+        }
+        return fields;
     }
 }
@@ -0,0 +1,46 @@
+package com.taskmanager.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.NamedQuery;
+import jakarta.persistence.Table;
+
+/**
+ * Records that a task was deleted, so a client refreshing only the changes
+ * since its last read can drop the row too. Written in the same transaction
+ * as the delete and pruned after a retention period.
+ */
+@Entity
+@Table(name = "task_tombstones")
+@NamedQuery(name = TaskTombstone.DELETED_SINCE,
+    query = "SELECT taskId FROM TaskTombstone WHERE userId = :userId AND deletedAt > :since")
+public class TaskTombstone {
+
+    public static final String DELETED_SINCE = "TaskTombstone.deletedSince";
+
+    @Id
+    @Column(name = "task_id")
+    private int taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private int userId;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+
+    public TaskTombstone() {
+    }
+
+    public TaskTombstone(int taskId, int userId, LocalDateTime deletedAt) {
+        this.taskId = taskId;
+        this.userId = userId;
+        this.deletedAt = deletedAt;
+    }
+
+    public int getTaskId() { return taskId; }
+    public int getUserId() { return userId; }
+    public LocalDateTime getDeletedAt() { return deletedAt; }
+}
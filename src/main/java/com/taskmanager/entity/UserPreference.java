@@ -2,6 +2,7 @@ package com.taskmanager.entity;
 
 import java.time.LocalDateTime;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -10,16 +11,30 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.NamedQuery;
 import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import com.taskmanager.util.SecondLevelCache;
+
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCache.PREFERENCE_REGION)
 @Table(name = "user_preferences")
+@NamedQuery(name = UserPreference.BY_USER_AND_KEY,
+    query = "FROM UserPreference WHERE user.id = :userId AND key = :key")
+@NamedQuery(name = UserPreference.BY_USER, query = "FROM UserPreference WHERE user.id = :userId")
 public class UserPreference {
     
+    public static final String BY_USER_AND_KEY = "UserPreference.byUserAndKey";
+    public static final String BY_USER = "UserPreference.byUser";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "preference_seq")
-    @SequenceGenerator(name = "preference_seq", sequenceName = "PREFERENCE_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "preference_seq", sequenceName = "PREFERENCE_SEQ", allocationSize = 50)
     private int id;
     
     @Column(name = "preference_key", nullable = false)
@@ -0,0 +1,202 @@
+package com.taskmanager.service;
+
+import java.lang.reflect.Method;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import com.taskmanager.config.ConfigManager;
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+import com.taskmanager.entity.UserPreference;
+import com.taskmanager.util.PasswordHasher;
+
+/**
+ * Non-blocking facade over DatabaseService. Every call runs on a background
+ * executor and returns a CompletableFuture; callers on the FX thread hop back
+ * with {@code thenAcceptAsync(..., Platform::runLater)}.
+ */
+public class AsyncDatabaseService {
+    private static AsyncDatabaseService instance;
+
+    private final DatabaseService databaseService;
+    private final ExecutorService executor;
+    private final ExecutorService hashExecutor;
+
+    private AsyncDatabaseService() {
+        this.databaseService = DatabaseService.getInstance();
+        this.executor = createExecutor();
+        this.hashExecutor = createHashExecutor();
+    }
+
+    public static synchronized AsyncDatabaseService getInstance() {
+        if (instance == null) {
+            instance = new AsyncDatabaseService();
+        }
+        return instance;
+    }
+
+    /**
+     * Uses a virtual thread per task when the runtime provides them (JDK 21+).
+     * On older runtimes falls back to daemon platform threads, bounded by the
+     * connection pool size since every call needs a connection anyway.
+     */
+    private static ExecutorService createExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger counter = new AtomicInteger();
+            return Executors.newFixedThreadPool(ConfigManager.getInstance().getHibernatePoolSize(), runnable -> {
+                Thread thread = new Thread(runnable, "db-async-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Password hashing is deliberately slow and CPU-bound, so it gets a small
+     * fixed pool with a bounded queue. When the queue is full the submitting
+     * thread hashes itself, which slows callers down instead of piling up work.
+     */
+    private static ExecutorService createHashExecutor() {
+        int threads = ConfigManager.getInstance().getPasswordHashThreads();
+        AtomicInteger counter = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(threads * 8), runnable -> {
+                Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    public <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+
+    public CompletableFuture<Void> run(Runnable call) {
+        return CompletableFuture.runAsync(call, executor);
+    }
+
+    /**
+     * Unwraps the CompletionException layer added by CompletableFuture.
+     */
+    public static Throwable rootCause(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    // User Management
+    // One read-only query, then the hash check on the hashing pool
+    public CompletableFuture<User> authenticateUser(String email, String password) {
+        return supply(() -> databaseService.findUserByEmail(email))
+            .thenApplyAsync(user -> databaseService.checkCredentials(user, password) ? user : null, hashExecutor);
+    }
+
+    public CompletableFuture<User> registerUser(String email, String password, String displayName) {
+        return CompletableFuture.supplyAsync(() -> PasswordHasher.hash(password), hashExecutor)
+            .thenApplyAsync(hash -> databaseService.createUser(email, hash, displayName), executor);
+    }
+
+    public CompletableFuture<User> getUserById(int userId) {
+        return supply(() -> databaseService.getUserById(userId));
+    }
+
+    // Task Management
+    public CompletableFuture<Task> saveTask(Task task) {
+        return supply(() -> databaseService.saveTask(task));
+    }
+
+    public CompletableFuture<List<Task>> saveTasks(Collection<Task> tasks) {
+        return supply(() -> databaseService.saveTasks(tasks));
+    }
+
+    public CompletableFuture<Task> updateTask(Task task) {
+        return supply(() -> databaseService.updateTask(task));
+    }
+
+    public CompletableFuture<Void> deleteTask(int taskId) {
+        return run(() -> databaseService.deleteTask(taskId));
+    }
+
+    public CompletableFuture<List<Task>> getUserTasks(int userId) {
+        return supply(() -> databaseService.getUserTasks(userId));
+    }
+
+    public CompletableFuture<String> getTaskDescription(int taskId) {
+        return supply(() -> databaseService.getTaskDescription(taskId));
+    }
+
+    public CompletableFuture<TaskPage> getUserTasksPage(int userId, TaskCursor after, int pageSize) {
+        return supply(() -> databaseService.getUserTasksPage(userId, after, pageSize));
+    }
+
+    public CompletableFuture<TaskPage> getUserTasksPageBefore(int userId, TaskCursor before, int pageSize) {
+        return supply(() -> databaseService.getUserTasksPageBefore(userId, before, pageSize));
+    }
+
+    public CompletableFuture<TaskDelta> getTasksChangedSince(int userId, LocalDateTime since) {
+        return supply(() -> databaseService.getTasksChangedSince(userId, since));
+    }
+
+    public CompletableFuture<List<Task>> findTasks(int userId, TaskQuery query) {
+        return supply(() -> databaseService.findTasks(userId, query));
+    }
+
+    public CompletableFuture<TaskStats> getTaskStats(int userId) {
+        return supply(() -> databaseService.getTaskStats(userId));
+    }
+
+    // Bulk Task Operations
+    public CompletableFuture<Integer> setTasksCompleted(int userId, Collection<Integer> taskIds, boolean completed) {
+        return supply(() -> databaseService.setTasksCompleted(userId, taskIds, completed));
+    }
+
+    public CompletableFuture<Integer> setTasksPriority(int userId, Collection<Integer> taskIds, String priority) {
+        return supply(() -> databaseService.setTasksPriority(userId, taskIds, priority));
+    }
+
+    public CompletableFuture<Integer> setTasksDeadline(int userId, Collection<Integer> taskIds, LocalDate deadline) {
+        return supply(() -> databaseService.setTasksDeadline(userId, taskIds, deadline));
+    }
+
+    public CompletableFuture<Integer> deleteTasks(int userId, Collection<Integer> taskIds) {
+        return supply(() -> databaseService.deleteTasks(userId, taskIds));
+    }
+
+    public CompletableFuture<Integer> deleteCompletedTasks(int userId) {
+        return supply(() -> databaseService.deleteCompletedTasks(userId));
+    }
+
+    // User Preferences Management
+    public CompletableFuture<Void> saveUserPreference(int userId, String key, String value) {
+        return run(() -> databaseService.saveUserPreference(userId, key, value));
+    }
+
+    public CompletableFuture<String> getUserPreference(int userId, String key) {
+        return supply(() -> databaseService.getUserPreference(userId, key));
+    }
+
+    public CompletableFuture<List<UserPreference>> getUserPreferences(int userId) {
+        return supply(() -> databaseService.getUserPreferences(userId));
+    }
+
+    public void shutdown() {
+        hashExecutor.shutdown();
+        executor.shutdown();
+    }
+}
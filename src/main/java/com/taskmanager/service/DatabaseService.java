@@ -1,20 +1,54 @@
 package com.taskmanager.service;
 
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Types;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
 
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+import org.hibernate.Cache;
 import org.hibernate.Session;
 import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.query.MutationQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.hibernate.query.Query;
 
+import com.taskmanager.config.ConfigManager;
 import com.taskmanager.entity.Task;
+import com.taskmanager.entity.TaskTombstone;
 import com.taskmanager.entity.User;
 import com.taskmanager.entity.UserPreference;
 import com.taskmanager.util.HibernateUtil;
+import com.taskmanager.util.OperationMetrics;
+import com.taskmanager.util.PasswordHasher;
+import com.taskmanager.util.SecondLevelCache;
 
 public class DatabaseService {
+    // Oracle rejects IN lists longer than 1000 elements
+    private static final int MAX_IN_LIST_SIZE = 1000;
+    private static final String OWNED_TASK_IDS = "user.id = :userId AND id IN (:ids)";
+    
     private static DatabaseService instance;
     
+    private final OperationMetrics metrics = OperationMetrics.getInstance();
+    
     private DatabaseService() {
         // Configuration is handled by HibernateUtil
     }
@@ -27,182 +61,888 @@ public class DatabaseService {
     }
     
     // User Management
+    // Each public method records one operation; the helpers they share are not timed on their own
     public User authenticateUser(String email, String password) {
+        return metrics.time("DatabaseService.authenticateUser", () -> {
+            User user = loadUserByEmail(email);
+            return verifyCredentials(user, password) ? user : null;
+        });
+    }
+    
+    // Read-only lookup through the unique index on email; nothing is locked or written
+    public User findUserByEmail(String email) {
+        return metrics.time("DatabaseService.findUserByEmail", () -> loadUserByEmail(email));
+    }
+    
+    private User loadUserByEmail(String email) {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Transaction tx = session.beginTransaction();
-            try {
-                Query<User> query = session.createQuery(
-                    "FROM User WHERE email = :email AND password = :password", User.class);
-                query.setParameter("email", email);
-                query.setParameter("password", password);
-                
-                User user = query.uniqueResult();
-                if (user != null) {
-                    user.setLastLogin(LocalDateTime.now());
-                    session.merge(user);
-                }
-                tx.commit();
-                return user;
-            } catch (Exception e) {
-                tx.rollback();
-                throw e;
-            }
+            session.setDefaultReadOnly(true);
+            return session.createNamedQuery(User.BY_EMAIL, User.class)
+                .setParameter("email", email)
+                .setReadOnly(true)
+                .uniqueResult();
+        }
+    }
+    
+    /**
+     * Checks the password against the user's stored hash (CPU-bound; no query).
+     * On success the login time is handed to LastLoginRecorder, and a plain-text
+     * or outdated hash is replaced.
+     */
+    public boolean checkCredentials(User user, String password) {
+        return metrics.time("DatabaseService.checkCredentials", () -> verifyCredentials(user, password));
+    }
+    
+    private boolean verifyCredentials(User user, String password) {
+        if (user == null) {
+            PasswordHasher.verifyAgainstDummy(password);
+            return false;
+        }
+        if (!PasswordHasher.verify(password, user.getPassword())) {
+            return false;
         }
+        if (PasswordHasher.needsRehash(user.getPassword())) {
+            String hash = PasswordHasher.hash(password);
+            writePasswordHash(user.getId(), hash);
+            user.setPassword(hash);
+        }
+        LocalDateTime now = LocalDateTime.now();
+        user.setLastLogin(now);
+        LastLoginRecorder.getInstance().record(user.getId(), now);
+        return true;
     }
     
     public User registerUser(String email, String password, String displayName) {
+        return metrics.time("DatabaseService.registerUser",
+            () -> insertUser(email, PasswordHasher.hash(password), displayName));
+    }
+    
+    // Inserts without a pre-check; the unique constraint on email rejects duplicates
+    public User createUser(String email, String passwordHash, String displayName) {
+        return metrics.time("DatabaseService.createUser", () -> insertUser(email, passwordHash, displayName));
+    }
+    
+    private User insertUser(String email, String passwordHash, String displayName) {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Transaction tx = session.beginTransaction();
             try {
-                // Check if user already exists
-                Query<User> existingUserQuery = session.createQuery(
-                    "FROM User WHERE email = :email", User.class);
-                existingUserQuery.setParameter("email", email);
-                User existingUser = existingUserQuery.uniqueResult();
-                
-                if (existingUser != null) {
-                    throw new RuntimeException("User with email " + email + " already exists");
-                }
-                
-                User user = new User(email, password, displayName);
+                User user = new User(email, passwordHash, displayName);
                 session.persist(user);
                 tx.commit();
                 return user;
             } catch (Exception e) {
                 tx.rollback();
+                if (isConstraintViolation(e)) {
+                    throw new RuntimeException("User with email " + email + " already exists", e);
+                }
                 throw new RuntimeException("Failed to register user: " + e.getMessage(), e);
             }
         }
     }
     
-    public User getUserById(int userId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            return session.get(User.class, userId);
+    private static boolean isConstraintViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof SQLIntegrityConstraintViolationException) {
+                return true;
+            }
         }
+        return false;
     }
     
-    // Task Management
-    public Task saveTask(Task task) {
+    public void updatePasswordHash(int userId, String passwordHash) {
+        metrics.run("DatabaseService.updatePasswordHash", () -> writePasswordHash(userId, passwordHash));
+    }
+    
+    private void writePasswordHash(int userId, String passwordHash) {
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Transaction tx = session.beginTransaction();
             try {
-                session.merge(task);
+                session.createMutationQuery("UPDATE User SET password = :password WHERE id = :id")
+                    .setParameter("password", passwordHash)
+                    .setParameter("id", userId)
+                    .executeUpdate();
                 tx.commit();
-                return task;
             } catch (Exception e) {
                 tx.rollback();
-                throw new RuntimeException("Failed to save task: " + e.getMessage(), e);
+                throw new RuntimeException("Failed to update password: " + e.getMessage(), e);
             }
         }
     }
     
+    // One batched statement for all recorded logins; see LastLoginRecorder
+    public void updateLastLogins(Map<Integer, LocalDateTime> lastLogins) {
+        metrics.run("DatabaseService.updateLastLogins", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Transaction tx = session.beginTransaction();
+                try {
+                    session.doWork(connection -> {
+                        try (PreparedStatement statement = connection.prepareStatement(
+                                "UPDATE users SET last_login = ? WHERE id = ?")) {
+                            for (Map.Entry<Integer, LocalDateTime> login : lastLogins.entrySet()) {
+                                statement.setObject(1, login.getValue());
+                                statement.setInt(2, login.getKey());
+                                statement.addBatch();
+                            }
+                            statement.executeBatch();
+                        }
+                    });
+                    tx.commit();
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to record last login: " + e.getMessage(), e);
+                }
+            }
+            // The update bypassed Hibernate, so drop the cached copies
+            Cache cache = HibernateUtil.getSessionFactory().getCache();
+            lastLogins.keySet().forEach(userId -> cache.evictEntityData(User.class, userId));
+        });
+    }
+    
+    public User getUserById(int userId) {
+        return metrics.time("DatabaseService.getUserById", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                return session.get(User.class, userId);
+            }
+        });
+    }
+    
+    // Task Management
+    public Task saveTask(Task task) {
+        return metrics.time("DatabaseService.saveTask", () -> {
+            if (task.getId() != 0) {
+                writeChanges(List.of(task), "Failed to update task");
+                return task;
+            }
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Transaction tx = session.beginTransaction();
+                try {
+                    stamp(task, databaseTime(session));
+                    session.persist(task); // assigns the generated id to this instance
+                    tx.commit();
+                    task.takeDirtyFields(); // everything set so far is now stored
+                    return task;
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to save task: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
+    public List<Task> saveTasks(Collection<Task> tasks) {
+        return metrics.time("DatabaseService.saveTasks", () -> {
+            int batchSize = ConfigManager.getInstance().getJdbcBatchSize();
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                session.setJdbcBatchSize(batchSize);
+                Transaction tx = session.beginTransaction();
+                try {
+                    LocalDateTime now = databaseTime(session);
+                    List<Task> saved = new ArrayList<>(tasks.size());
+                    int count = 0;
+                    for (Task task : tasks) {
+                        stamp(task, now);
+                        session.persist(task);
+                        saved.add(task);
+                        // Send each full batch and keep the persistence context small
+                        if (++count % batchSize == 0) {
+                            session.flush();
+                            session.clear();
+                        }
+                    }
+                    tx.commit();
+                    saved.forEach(Task::takeDirtyFields); // as in saveTask: everything set so far is stored
+                    return saved;
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to save tasks: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
     public List<Task> getUserTasks(int userId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Task> query = session.createQuery(
-                "FROM Task WHERE user.id = :userId ORDER BY createdAt DESC", Task.class);
-            query.setParameter("userId", userId);
-            return query.list();
-        }
+        return metrics.time("DatabaseService.getUserTasks", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<TaskSummary> query = summaryQuery(session, Task.LIST_BY_USER);
+                query.setParameter("userId", userId);
+                return toTasks(session, userId, query.list());
+            }
+        });
+    }
+    
+    // Full entities including descriptions, for building the search index
+    public List<Task> getUserTasksWithDescriptions(int userId) {
+        return metrics.time("DatabaseService.getUserTasksWithDescriptions", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<Task> query = session.createNamedQuery(Task.WITH_DESCRIPTIONS, Task.class);
+                query.setParameter("userId", userId);
+                return query.list();
+            }
+        });
+    }
+    
+    public String getTaskDescription(int taskId) {
+        return metrics.time("DatabaseService.getTaskDescription", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                return session.createNamedQuery(Task.DESCRIPTION, String.class)
+                    .setParameter("id", taskId)
+                    .uniqueResult();
+            }
+        });
+    }
+    
+    // Keyset pagination on (createdAt, id); a null cursor starts at the newest task
+    public TaskPage getUserTasksPage(int userId, TaskCursor after, int pageSize) {
+        return metrics.time("DatabaseService.getUserTasksPage", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<TaskSummary> query;
+                if (after == null) {
+                    query = summaryQuery(session, Task.FIRST_PAGE);
+                } else {
+                    query = summaryQuery(session, Task.PAGE_AFTER);
+                    query.setParameter("createdAt", after.getCreatedAt());
+                    query.setParameter("id", after.getId());
+                }
+                query.setParameter("userId", userId);
+                query.setMaxResults(pageSize + 1); // one extra row tells us whether another page exists
+                List<Task> rows = toTasks(session, userId, query.list());
+                boolean hasMore = rows.size() > pageSize;
+                return new TaskPage(hasMore ? new ArrayList<>(rows.subList(0, pageSize)) : rows, hasMore);
+            }
+        });
+    }
+    
+    // Reads the page of newer tasks directly above the cursor, returned newest first
+    public TaskPage getUserTasksPageBefore(int userId, TaskCursor before, int pageSize) {
+        return metrics.time("DatabaseService.getUserTasksPageBefore", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<TaskSummary> query = summaryQuery(session, Task.PAGE_BEFORE);
+                query.setParameter("userId", userId);
+                query.setParameter("createdAt", before.getCreatedAt());
+                query.setParameter("id", before.getId());
+                query.setMaxResults(pageSize + 1);
+                List<Task> rows = toTasks(session, userId, query.list());
+                boolean hasMore = rows.size() > pageSize;
+                List<Task> page = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+                Collections.reverse(page);
+                return new TaskPage(page, hasMore);
+            }
+        });
+    }
+    
+    /**
+     * The user's tasks updated after {@code since}, newest first, and the ids of
+     * tasks deleted after it. Reads (user_id, updated_at) and the tombstones.
+     * The delta carries the database time read before them, the {@code since}
+     * of the next refresh.
+     */
+    public TaskDelta getTasksChangedSince(int userId, LocalDateTime since) {
+        return metrics.time("DatabaseService.getTasksChangedSince", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                LocalDateTime readAt = databaseTime(session);
+                Query<TaskSummary> query = summaryQuery(session, Task.CHANGED_SINCE);
+                query.setParameter("userId", userId);
+                query.setParameter("since", since);
+                List<Task> changed = toTasks(session, userId, query.list());
+                List<Integer> deletedIds = session.createNamedQuery(TaskTombstone.DELETED_SINCE, Integer.class)
+                    .setParameter("userId", userId)
+                    .setParameter("since", since)
+                    .list();
+                return new TaskDelta(changed, deletedIds, readAt);
+            }
+        });
+    }
+    
+    // Tombstones are only needed by clients that refreshed within the retention period
+    public int pruneTaskTombstones(int userId, LocalDateTime before) {
+        return metrics.time("DatabaseService.pruneTaskTombstones", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Transaction tx = session.beginTransaction();
+                try {
+                    int pruned = session.createMutationQuery(
+                        "DELETE FROM TaskTombstone WHERE userId = :userId AND deletedAt < :before")
+                        .setParameter("userId", userId)
+                        .setParameter("before", before)
+                        .executeUpdate();
+                    tx.commit();
+                    return pruned;
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to prune task tombstones: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Deletes the tasks matching the condition and writes a tombstone for each
+     * of them first, in the caller's transaction, dated by the database clock.
+     * Every bulk task delete goes through here so that delta refreshes see it.
+     */
+    private static int deleteTasksWhere(Session session, String condition, Consumer<MutationQuery> binder) {
+        MutationQuery tombstones = session.createMutationQuery(
+            "INSERT INTO TaskTombstone (taskId, userId, deletedAt) SELECT id, user.id, local datetime FROM Task WHERE "
+            + condition);
+        binder.accept(tombstones);
+        tombstones.executeUpdate();
+        MutationQuery delete = session.createMutationQuery("DELETE FROM Task WHERE " + condition);
+        binder.accept(delete);
+        return delete.executeUpdate();
+    }
+    
+    // Compiles every criterion of the TaskQuery into one SQL statement
+    public List<Task> findTasks(int userId, TaskQuery taskQuery) {
+        return metrics.time("DatabaseService.findTasks", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                HibernateCriteriaBuilder cb = session.getCriteriaBuilder();
+                CriteriaQuery<TaskSummary> criteria = cb.createQuery(TaskSummary.class);
+                Root<Task> task = criteria.from(Task.class);
+
+                List<Predicate> predicates = new ArrayList<>();
+                predicates.add(cb.equal(task.get("user").get("id"), userId));
+                if (taskQuery.getCompleted() != null) {
+                    predicates.add(cb.equal(task.get("completed"), taskQuery.getCompleted()));
+                }
+                if (!taskQuery.getPriorities().isEmpty()) {
+                    predicates.add(task.get("priority").in(taskQuery.getPriorities()));
+                }
+                if (taskQuery.getDeadlineFrom() != null) {
+                    predicates.add(cb.greaterThanOrEqualTo(task.get("deadline"), taskQuery.getDeadlineFrom()));
+                }
+                if (taskQuery.getDeadlineTo() != null) {
+                    predicates.add(cb.lessThanOrEqualTo(task.get("deadline"), taskQuery.getDeadlineTo()));
+                }
+                if (taskQuery.hasText()) {
+                    // Matched like the search index: every term, anywhere in the title or description
+                    for (String term : TaskSearchIndex.tokenize(taskQuery.getText())) {
+                        String pattern = "%" + escapeLike(term) + "%";
+                        predicates.add(cb.or(
+                            cb.like(cb.lower(task.get("title")), pattern, '\\'),
+                            cb.like(cb.lower(task.get("description")), pattern, '\\')));
+                    }
+                }
+                criteria.select(cb.construct(TaskSummary.class,
+                        task.get("id"), task.get("title"),
+                        cb.cast(cb.substring(task.get("description"), 1, descriptionPreviewLength()), String.class),
+                        cb.length(task.get("description")),
+                        task.get("priority"), task.get("deadline"), task.get("completed"), task.get("createdAt")))
+                    .where(predicates.toArray(new Predicate[0]));
+
+                switch (taskQuery.getSort()) {
+                    case CREATED_ASC:
+                        criteria.orderBy(cb.asc(task.get("createdAt")), cb.asc(task.get("id")));
+                        break;
+                    case DEADLINE_ASC:
+                        criteria.orderBy(cb.asc(task.get("deadline")), cb.desc(task.get("createdAt")));
+                        break;
+                    case PRIORITY:
+                        criteria.orderBy(cb.asc(cb.selectCase(task.<String>get("priority"))
+                                .when("High", 0).when("Medium", 1).when("Low", 2).otherwise(3)),
+                            cb.desc(task.get("createdAt")));
+                        break;
+                    case TITLE:
+                        criteria.orderBy(cb.asc(task.get("title")), cb.desc(task.get("createdAt")));
+                        break;
+                    default:
+                        criteria.orderBy(cb.desc(task.get("createdAt")), cb.desc(task.get("id")));
+                        break;
+                }
+                return toTasks(session, userId, session.createQuery(criteria).list());
+            }
+        });
+    }
+    
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
     
     public List<Task> getUserTasksByStatus(int userId, boolean completed) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Task> query = session.createQuery(
-                "FROM Task WHERE user.id = :userId AND completed = :completed ORDER BY createdAt DESC", Task.class);
-            query.setParameter("userId", userId);
-            query.setParameter("completed", completed);
-            return query.list();
-        }
+        return metrics.time("DatabaseService.getUserTasksByStatus", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<TaskSummary> query = summaryQuery(session, Task.BY_STATUS);
+                query.setParameter("userId", userId);
+                query.setParameter("completed", completed);
+                return toTasks(session, userId, query.list());
+            }
+        });
     }
     
     public List<Task> getUserTasksByPriority(int userId, String priority) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<Task> query = session.createQuery(
-                "FROM Task WHERE user.id = :userId AND priority = :priority ORDER BY createdAt DESC", Task.class);
-            query.setParameter("userId", userId);
-            query.setParameter("priority", priority);
-            return query.list();
+        return metrics.time("DatabaseService.getUserTasksByPriority", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<TaskSummary> query = summaryQuery(session, Task.BY_PRIORITY);
+                query.setParameter("userId", userId);
+                query.setParameter("priority", priority);
+                return toTasks(session, userId, query.list());
+            }
+        });
+    }
+    
+    // One of the Task list queries, which select TaskSummary rows with the description cut to a preview
+    private static Query<TaskSummary> summaryQuery(Session session, String name) {
+        return session.createNamedQuery(name, TaskSummary.class)
+            .setParameter("previewLength", descriptionPreviewLength());
+    }
+    
+    private static int descriptionPreviewLength() {
+        return ConfigManager.getInstance().getDescriptionPreviewLength();
+    }
+    
+    private static List<Task> toTasks(Session session, int userId, List<TaskSummary> rows) {
+        User user = session.getReference(User.class, userId);
+        List<Task> tasks = new ArrayList<>(rows.size());
+        for (TaskSummary row : rows) {
+            tasks.add(row.toTask(user));
         }
+        return tasks;
     }
     
     public void deleteTask(int taskId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Transaction tx = session.beginTransaction();
-            try {
-                Task task = session.get(Task.class, taskId);
-                if (task != null) {
-                    session.remove(task);
+        metrics.run("DatabaseService.deleteTask", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Transaction tx = session.beginTransaction();
+                try {
+                    Task task = session.get(Task.class, taskId);
+                    if (task != null) {
+                        session.persist(new TaskTombstone(taskId, task.getUser().getId(), databaseTime(session)));
+                        session.remove(task);
+                    }
+                    tx.commit();
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to delete task: " + e.getMessage(), e);
                 }
-                tx.commit();
-            } catch (Exception e) {
-                tx.rollback();
-                throw new RuntimeException("Failed to delete task: " + e.getMessage(), e);
             }
-        }
+        });
     }
     
     public Task updateTask(Task task) {
+        return metrics.time("DatabaseService.updateTask", () -> {
+            writeChanges(List.of(task), "Failed to update task");
+            return task;
+        });
+    }
+    
+    // Writes several edited tasks in one transaction, using JDBC batching
+    public List<Task> updateTasks(Collection<Task> tasks) {
+        return metrics.time("DatabaseService.updateTasks", () -> {
+            writeChanges(tasks, "Failed to update tasks");
+            return new ArrayList<>(tasks);
+        });
+    }
+    
+    /**
+     * Updates only the columns changed since each task was loaded or last saved,
+     * without reading the rows first. Tasks changing the same columns share one
+     * batched statement; unchanged tasks are skipped.
+     */
+    private void writeChanges(Collection<Task> tasks, String errorMessage) {
+        Map<Task, Set<Task.Field>> changes = new LinkedHashMap<>();
+        Map<Set<Task.Field>, List<Task>> byColumns = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            Set<Task.Field> fields = task.takeDirtyFields();
+            if (!fields.isEmpty()) {
+                changes.put(task, fields);
+                byColumns.computeIfAbsent(fields, k -> new ArrayList<>()).add(task);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        
+        int batchSize = ConfigManager.getInstance().getJdbcBatchSize();
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Transaction tx = session.beginTransaction();
             try {
-                task.setUpdatedAt(LocalDateTime.now());
-                session.merge(task);
+                LocalDateTime now = databaseTime(session);
+                session.doWork(connection -> {
+                    for (Map.Entry<Set<Task.Field>, List<Task>> group : byColumns.entrySet()) {
+                        Set<Task.Field> fields = group.getKey();
+                        try (PreparedStatement statement = connection.prepareStatement(updateSql(fields))) {
+                            int count = 0;
+                            for (Task task : group.getValue()) {
+                                int index = 1;
+                                for (Task.Field field : fields) {
+                                    bindField(statement, index++, task, field);
+                                }
+                                statement.setObject(index++, now);
+                                statement.setObject(index++, now);
+                                statement.setInt(index, task.getId());
+                                statement.addBatch();
+                                if (++count % batchSize == 0) {
+                                    statement.executeBatch();
+                                }
+                            }
+                            if (count % batchSize != 0) {
+                                statement.executeBatch();
+                            }
+                        }
+                    }
+                });
                 tx.commit();
-                return task;
+                changes.keySet().forEach(task -> stamp(task, now));
             } catch (Exception e) {
                 tx.rollback();
-                throw new RuntimeException("Failed to update task: " + e.getMessage(), e);
+                changes.forEach(Task::restoreDirtyFields);
+                throw new RuntimeException(errorMessage + ": " + e.getMessage(), e);
             }
         }
     }
     
-    // User Preferences Management
-    public void saveUserPreference(int userId, String key, String value) {
+    /**
+     * Applies task changes made in local-first mode, in one transaction. New
+     * tasks are inserted, updates write only their changed columns and deletes
+     * remove the row. An update or delete is rejected as a conflict when its
+     * row is gone or was edited after the local edit was made, so the later
+     * edit wins. edited_at records when the applied edit was made and updated_at
+     * when it is applied, so updated_at keeps following commit order for delta
+     * refreshes.
+     *
+     * {@code beforeCommit} gets the stored ids of the new tasks, keyed by their
+     * temporary ids, once they are inserted and before the transaction commits.
+     */
+    public TaskSyncResult applyTaskMutations(List<TaskMutation> mutations,
+                                             Consumer<Map<Integer, Integer>> beforeCommit) {
+        return metrics.time("DatabaseService.applyTaskMutations", () -> {
+            List<Integer> existingIds = new ArrayList<>();
+            for (TaskMutation mutation : mutations) {
+                if (mutation.getType() != TaskMutation.Type.CREATE) {
+                    existingIds.add(mutation.getTaskId());
+                }
+            }
+
+            int batchSize = ConfigManager.getInstance().getJdbcBatchSize();
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                session.setJdbcBatchSize(batchSize);
+                Transaction tx = session.beginTransaction();
+                try {
+                    LocalDateTime appliedAt = databaseTime(session);
+                    Map<Integer, Object[]> versions = loadVersions(session, existingIds);
+                    Map<TaskMutation, Task> created = new LinkedHashMap<>();
+                    Map<Set<Task.Field>, List<TaskMutation>> updatesByColumns = new LinkedHashMap<>();
+                    Map<Integer, List<Integer>> deletesByUser = new LinkedHashMap<>();
+                    List<TaskMutation> conflicts = new ArrayList<>();
+                    for (TaskMutation mutation : mutations) {
+                        if (mutation.getType() == TaskMutation.Type.CREATE) {
+                            Task task = mutation.toTask(session.getReference(User.class, mutation.getUserId()));
+                            task.setUpdatedAt(appliedAt);
+                            session.persist(task);
+                            created.put(mutation, task);
+                            continue;
+                        }
+                        Object[] version = versions.get(mutation.getTaskId()); // user id, edited_at
+                        if (version == null || !version[0].equals(mutation.getUserId())
+                                || (version[1] != null && ((LocalDateTime) version[1]).isAfter(mutation.getMadeAt()))) {
+                            conflicts.add(mutation);
+                        } else if (mutation.getType() == TaskMutation.Type.UPDATE) {
+                            updatesByColumns.computeIfAbsent(mutation.getFields(), k -> new ArrayList<>()).add(mutation);
+                        } else {
+                            deletesByUser.computeIfAbsent(mutation.getUserId(), k -> new ArrayList<>()).add(mutation.getTaskId());
+                        }
+                    }
+                    session.flush();
+
+                    session.doWork(connection -> {
+                        for (Map.Entry<Set<Task.Field>, List<TaskMutation>> group : updatesByColumns.entrySet()) {
+                            Set<Task.Field> fields = group.getKey();
+                            try (PreparedStatement statement = connection.prepareStatement(updateSql(fields))) {
+                                int count = 0;
+                                for (TaskMutation mutation : group.getValue()) {
+                                    Task values = mutation.toTask(null);
+                                    int index = 1;
+                                    for (Task.Field field : fields) {
+                                        bindField(statement, index++, values, field);
+                                    }
+                                    statement.setObject(index++, mutation.getMadeAt());
+                                    statement.setObject(index++, appliedAt);
+                                    statement.setInt(index, mutation.getTaskId());
+                                    statement.addBatch();
+                                    if (++count % batchSize == 0) {
+                                        statement.executeBatch();
+                                    }
+                                }
+                                if (count % batchSize != 0) {
+                                    statement.executeBatch();
+                                }
+                            }
+                        }
+                    });
+                    for (Map.Entry<Integer, List<Integer>> deletes : deletesByUser.entrySet()) {
+                        List<Integer> ids = deletes.getValue();
+                        for (int from = 0; from < ids.size(); from += MAX_IN_LIST_SIZE) {
+                            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST_SIZE, ids.size()));
+                            deleteTasksWhere(session, OWNED_TASK_IDS, query -> query
+                                .setParameter("userId", deletes.getKey())
+                                .setParameterList("ids", chunk));
+                        }
+                    }
+                    Map<Integer, Integer> assignedIds = new LinkedHashMap<>();
+                    created.forEach((mutation, task) -> assignedIds.put(mutation.getTaskId(), task.getId()));
+                    if (!assignedIds.isEmpty()) {
+                        beforeCommit.accept(assignedIds);
+                    }
+                    tx.commit();
+                    return new TaskSyncResult(assignedIds, conflicts);
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to sync tasks: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
+    /**
+     * The ids that belong to a stored task, or to a deleted one that still has
+     * its tombstone. Tells whether a create whose commit was not confirmed went through.
+     */
+    public Set<Integer> findStoredTaskIds(Collection<Integer> taskIds) {
+        return metrics.time("DatabaseService.findStoredTaskIds", () -> {
+            List<Integer> ids = new ArrayList<>(taskIds);
+            Set<Integer> stored = new HashSet<>();
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                for (int from = 0; from < ids.size(); from += MAX_IN_LIST_SIZE) {
+                    List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST_SIZE, ids.size()));
+                    stored.addAll(session.createQuery("SELECT id FROM Task WHERE id IN (:ids)", Integer.class)
+                        .setParameterList("ids", chunk)
+                        .list());
+                    stored.addAll(session.createQuery(
+                        "SELECT taskId FROM TaskTombstone WHERE taskId IN (:ids)", Integer.class)
+                        .setParameterList("ids", chunk)
+                        .list());
+                }
+            }
+            return stored;
+        });
+    }
+    
+    // Owner and last update of each task that still exists, by id
+    private static Map<Integer, Object[]> loadVersions(Session session, List<Integer> taskIds) {
+        Map<Integer, Object[]> versions = new HashMap<>();
+        for (int from = 0; from < taskIds.size(); from += MAX_IN_LIST_SIZE) {
+            List<Object[]> rows = session.createNamedQuery(Task.VERSIONS, Object[].class)
+                .setParameterList("ids", taskIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, taskIds.size())))
+                .list();
+            for (Object[] row : rows) {
+                versions.put((Integer) row[0], new Object[] { row[1], row[2] });
+            }
+        }
+        return versions;
+    }
+    
+    /**
+     * The current time by the database clock. Every write stamps updated_at
+     * (and tombstones their deleted_at) with it rather than with the client's
+     * clock, so delta refreshes compare times from one clock whichever client
+     * wrote the row.
+     */
+    public LocalDateTime getDatabaseTime() {
+        return metrics.time("DatabaseService.getDatabaseTime", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                return databaseTime(session);
+            }
+        });
+    }
+    
+    private static LocalDateTime databaseTime(Session session) {
+        return session.createQuery("SELECT local datetime", LocalDateTime.class).getSingleResult();
+    }
+    
+    private static void stamp(Task task, LocalDateTime now) {
+        task.setEditedAt(now);
+        task.setUpdatedAt(now);
+    }
+    
+    private static String updateSql(Set<Task.Field> fields) {
+        StringBuilder sql = new StringBuilder("UPDATE tasks SET ");
+        for (Task.Field field : fields) {
+            sql.append(field.getColumn()).append(" = ?, ");
+        }
+        return sql.append("edited_at = ?, updated_at = ? WHERE id = ?").toString();
+    }
+    
+    private static void bindField(PreparedStatement statement, int index, Task task, Task.Field field) throws SQLException {
+        switch (field) {
+            case TITLE:
+                statement.setString(index, task.getTitle());
+                break;
+            case DESCRIPTION:
+                statement.setString(index, task.getDescription());
+                break;
+            case PRIORITY:
+                statement.setString(index, task.getPriority());
+                break;
+            case DEADLINE:
+                if (task.getDeadline() != null) {
+                    statement.setObject(index, task.getDeadline());
+                } else {
+                    statement.setNull(index, Types.DATE);
+                }
+                break;
+            case COMPLETED:
+                statement.setBoolean(index, task.isCompleted());
+                break;
+        }
+    }
+    
+    // All dashboard counts for a user in one aggregate query
+    public TaskStats getTaskStats(int userId) {
+        return metrics.time("DatabaseService.getTaskStats", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Object[] row = session.createNamedQuery(Task.STATS, Object[].class)
+                    .setParameter("userId", userId)
+                    .setParameter("today", LocalDate.now())
+                    .uniqueResult();
+                return new TaskStats(toInt(row[0]), toInt(row[1]), toInt(row[2]), toInt(row[3]));
+            }
+        });
+    }
+    
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0; // sum() is null when there are no rows
+    }
+    
+    // Bulk Task Operations (one statement per chunk of ids, scoped to the owning user)
+    public int setTasksCompleted(int userId, Collection<Integer> taskIds, boolean completed) {
+        return metrics.time("DatabaseService.setTasksCompleted", () -> executeBulkUpdate(
+            "completed = :completed", userId, taskIds, query -> query.setParameter("completed", completed)));
+    }
+    
+    public int setTasksPriority(int userId, Collection<Integer> taskIds, String priority) {
+        return metrics.time("DatabaseService.setTasksPriority", () -> executeBulkUpdate(
+            "priority = :priority", userId, taskIds, query -> query.setParameter("priority", priority)));
+    }
+    
+    public int setTasksDeadline(int userId, Collection<Integer> taskIds, LocalDate deadline) {
+        return metrics.time("DatabaseService.setTasksDeadline", () -> executeBulkUpdate(
+            "deadline = :deadline", userId, taskIds, query -> query.setParameter("deadline", deadline)));
+    }
+    
+    public int deleteTasks(int userId, Collection<Integer> taskIds) {
+        return metrics.time("DatabaseService.deleteTasks", () -> executeBulkDelete(userId, taskIds));
+    }
+    
+    public int deleteCompletedTasks(int userId) {
+        return metrics.time("DatabaseService.deleteCompletedTasks", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Transaction tx = session.beginTransaction();
+                try {
+                    int deleted = deleteTasksWhere(session, "user.id = :userId AND completed = true",
+                        query -> query.setParameter("userId", userId));
+                    tx.commit();
+                    return deleted;
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to delete completed tasks: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
+    /**
+     * Sets the given columns (an HQL assignment list such as
+     * {@code "priority = :priority"}) on the user's tasks and stamps editedAt
+     * and updatedAt from the database clock.
+     */
+    private int executeBulkUpdate(String assignments, int userId, Collection<Integer> taskIds,
+                                  Consumer<MutationQuery> binder) {
+        String hql = "UPDATE Task SET " + assignments + ", editedAt = local datetime, updatedAt = local datetime WHERE "
+            + OWNED_TASK_IDS;
+        return executeInChunks(taskIds, "update", (session, chunk) -> {
+            MutationQuery query = session.createMutationQuery(hql)
+                .setParameter("userId", userId)
+                .setParameterList("ids", chunk);
+            binder.accept(query);
+            return query.executeUpdate();
+        });
+    }
+    
+    private int executeBulkDelete(int userId, Collection<Integer> taskIds) {
+        return executeInChunks(taskIds, "delete", (session, chunk) ->
+            deleteTasksWhere(session, OWNED_TASK_IDS, query -> query
+                .setParameter("userId", userId)
+                .setParameterList("ids", chunk)));
+    }
+    
+    // Runs the statement once per chunk of ids, all in one transaction; returns the rows affected
+    private int executeInChunks(Collection<Integer> taskIds, String action,
+                                BiFunction<Session, List<Integer>, Integer> statement) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return 0;
+        }
+        List<Integer> ids = new ArrayList<>(taskIds);
         try (Session session = HibernateUtil.getSessionFactory().openSession()) {
             Transaction tx = session.beginTransaction();
             try {
-                // Check if preference already exists
-                Query<UserPreference> existingQuery = session.createQuery(
-                    "FROM UserPreference WHERE user.id = :userId AND key = :key", UserPreference.class);
-                existingQuery.setParameter("userId", userId);
-                existingQuery.setParameter("key", key);
-                UserPreference existing = existingQuery.uniqueResult();
-                
-                if (existing != null) {
-                    existing.setValue(value);
-                    session.merge(existing);
-                } else {
-                    User user = session.get(User.class, userId);
-                    UserPreference preference = new UserPreference(key, value, user);
-                    session.persist(preference);
+                int affected = 0;
+                for (int from = 0; from < ids.size(); from += MAX_IN_LIST_SIZE) {
+                    affected += statement.apply(session, ids.subList(from, Math.min(from + MAX_IN_LIST_SIZE, ids.size())));
                 }
-                
                 tx.commit();
+                return affected;
             } catch (Exception e) {
                 tx.rollback();
-                throw new RuntimeException("Failed to save user preference: " + e.getMessage(), e);
+                throw new RuntimeException("Failed to " + action + " tasks: " + e.getMessage(), e);
             }
         }
     }
     
+    // User Preferences Management
+    public void saveUserPreference(int userId, String key, String value) {
+        metrics.run("DatabaseService.saveUserPreference", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Transaction tx = session.beginTransaction();
+                try {
+                    // Check if preference already exists
+                    Query<UserPreference> existingQuery = session.createNamedQuery(UserPreference.BY_USER_AND_KEY, UserPreference.class);
+                    existingQuery.setParameter("userId", userId);
+                    existingQuery.setParameter("key", key);
+                    UserPreference existing = existingQuery.uniqueResult();
+
+                    if (existing != null) {
+                        existing.setValue(value);
+                        session.merge(existing);
+                    } else {
+                        User user = session.get(User.class, userId);
+                        UserPreference preference = new UserPreference(key, value, user);
+                        session.persist(preference);
+                    }
+
+                    tx.commit();
+                    // Cached preference lookups are stale now; drop them rather than
+                    // rely only on the table timestamp check
+                    HibernateUtil.getSessionFactory().getCache().evictQueryRegion(SecondLevelCache.PREFERENCE_QUERY_REGION);
+                } catch (Exception e) {
+                    tx.rollback();
+                    throw new RuntimeException("Failed to save user preference: " + e.getMessage(), e);
+                }
+            }
+        });
+    }
+    
     public String getUserPreference(int userId, String key) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<UserPreference> query = session.createQuery(
-                "FROM UserPreference WHERE user.id = :userId AND key = :key", UserPreference.class);
-            query.setParameter("userId", userId);
-            query.setParameter("key", key);
-            UserPreference preference = query.uniqueResult();
-            return preference != null ? preference.getValue() : null;
-        }
+        return metrics.time("DatabaseService.getUserPreference", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<UserPreference> query = session.createNamedQuery(UserPreference.BY_USER_AND_KEY, UserPreference.class);
+                query.setParameter("userId", userId);
+                query.setParameter("key", key);
+                query.setCacheable(true);
+                query.setCacheRegion(SecondLevelCache.PREFERENCE_QUERY_REGION);
+                UserPreference preference = query.uniqueResult();
+                return preference != null ? preference.getValue() : null;
+            }
+        });
     }
     
     public List<UserPreference> getUserPreferences(int userId) {
-        try (Session session = HibernateUtil.getSessionFactory().openSession()) {
-            Query<UserPreference> query = session.createQuery(
-                "FROM UserPreference WHERE user.id = :userId", UserPreference.class);
-            query.setParameter("userId", userId);
-            return query.list();
-        }
+        return metrics.time("DatabaseService.getUserPreferences", () -> {
+            try (Session session = HibernateUtil.getSessionFactory().openSession()) {
+                Query<UserPreference> query = session.createNamedQuery(UserPreference.BY_USER, UserPreference.class);
+                query.setParameter("userId", userId);
+                query.setCacheable(true);
+                query.setCacheRegion(SecondLevelCache.PREFERENCE_QUERY_REGION);
+                return query.list();
+            }
+        });
     }
     
     public void close() {
@@ -0,0 +1,75 @@
+package com.taskmanager.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.taskmanager.config.ConfigManager;
+
+/**
+ * Records last-login times off the login path. Logins are kept per user (the
+ * latest wins) and written together in one batched update a short while later,
+ * so signing in never waits for a write.
+ */
+public class LastLoginRecorder {
+    private static LastLoginRecorder instance;
+
+    private final DatabaseService databaseService;
+    private final ScheduledExecutorService executor;
+    private final long delayMillis;
+
+    // Guarded by this
+    private Map<Integer, LocalDateTime> pending = new HashMap<>();
+    private boolean flushScheduled;
+
+    private LastLoginRecorder() {
+        this.databaseService = DatabaseService.getInstance();
+        this.delayMillis = ConfigManager.getInstance().getLastLoginFlushDelayMs();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "last-login-recorder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized LastLoginRecorder getInstance() {
+        if (instance == null) {
+            instance = new LastLoginRecorder();
+        }
+        return instance;
+    }
+
+    public synchronized void record(int userId, LocalDateTime loginTime) {
+        pending.put(userId, loginTime);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void flush() {
+        Map<Integer, LocalDateTime> batch;
+        synchronized (this) {
+            batch = pending;
+            pending = new HashMap<>();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            databaseService.updateLastLogins(batch);
+        } catch (Exception e) {
+            // Losing a last-login timestamp is not worth failing anything over
+            System.err.println("Failed to record last login for " + batch.size() + " user(s): " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        flush();
+    }
+}
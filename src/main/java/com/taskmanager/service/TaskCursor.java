@@ -0,0 +1,25 @@
+package com.taskmanager.service;
+
+import java.time.LocalDateTime;
+
+import com.taskmanager.entity.Task;
+
+/**
+ * Keyset position in the (created_at DESC, id DESC) task ordering.
+ */
+public final class TaskCursor {
+    private final LocalDateTime createdAt;
+    private final int id;
+
+    public TaskCursor(LocalDateTime createdAt, int id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static TaskCursor of(Task task) {
+        return new TaskCursor(task.getCreatedAt(), task.getId());
+    }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public int getId() { return id; }
+}
@@ -0,0 +1,28 @@
+package com.taskmanager.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.taskmanager.entity.Task;
+
+/**
+ * The tasks of a user changed since a point in time, newest first, and the
+ * ids of those deleted since then. readAt is the database time the changes
+ * were read at.
+ */
+public class TaskDelta {
+    private final List<Task> changed;
+    private final List<Integer> deletedIds;
+    private final LocalDateTime readAt;
+
+    public TaskDelta(List<Task> changed, List<Integer> deletedIds, LocalDateTime readAt) {
+        this.changed = changed;
+        this.deletedIds = deletedIds;
+        this.readAt = readAt;
+    }
+
+    public List<Task> getChanged() { return changed; }
+    public List<Integer> getDeletedIds() { return deletedIds; }
+    public LocalDateTime getReadAt() { return readAt; }
+    public boolean isEmpty() { return changed.isEmpty() && deletedIds.isEmpty(); }
+}
@@ -0,0 +1,241 @@
+package com.taskmanager.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only journal of task mutations in a memory-mapped file. Appending is
+ * a memory copy, so it can run on the FX thread; the pages reach the disk when
+ * the sync engine forces them, or when the OS writes them back.
+ *
+ * Layout: a header (magic, version, acknowledged offset, write offset) then
+ * records of [length][CRC32][TaskMutation bytes]. Records before the
+ * acknowledged offset are stored in the database; once everything is
+ * acknowledged the file is reused from the start.
+ */
+public class TaskJournal implements Closeable {
+    private static final int MAGIC = 0x544A524E; // "TJRN"
+    private static final int VERSION = 1;
+    private static final int ACK_OFFSET_POSITION = 8;
+    private static final int WRITE_OFFSET_POSITION = 12;
+    private static final int HEADER_SIZE = 16;
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 1 << 20;
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    // Guarded by this
+    private int ackOffset;
+    private int writeOffset;
+    // Unacknowledged user changes; bookkeeping records are not counted
+    private int pendingCount;
+
+    /**
+     * A run of unacknowledged records, oldest first.
+     */
+    public static final class Batch {
+        private final List<TaskMutation> mutations;
+        private final int endOffset;
+
+        private Batch(List<TaskMutation> mutations, int endOffset) {
+            this.mutations = mutations;
+            this.endOffset = endOffset;
+        }
+
+        public List<TaskMutation> getMutations() { return mutations; }
+        public boolean isEmpty() { return mutations.isEmpty(); }
+    }
+
+    private TaskJournal(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal, creating it if needed. Records left unsynced by an
+     * earlier run become pending again; a torn record at the end is dropped.
+     */
+    public static TaskJournal open(Path path) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            TaskJournal journal = new TaskJournal(path, channel);
+            journal.load();
+            return journal;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open task journal " + path, e);
+        }
+    }
+
+    private void load() throws IOException {
+        boolean existing = channel.size() >= HEADER_SIZE;
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_SIZE));
+        if (!existing || buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            setOffsets(HEADER_SIZE, HEADER_SIZE);
+            return;
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported task journal version " + buffer.getInt(4));
+        }
+        ackOffset = buffer.getInt(ACK_OFFSET_POSITION);
+        writeOffset = buffer.getInt(WRITE_OFFSET_POSITION);
+
+        // Count the pending changes, stopping at the first record that does not check out
+        int offset = ackOffset;
+        while (offset < writeOffset) {
+            int end = validRecordEnd(offset);
+            if (end < 0) {
+                System.err.println("Task journal " + path + ": dropping damaged records from offset " + offset);
+                break;
+            }
+            if (!decode(offset + RECORD_HEADER_SIZE, end - offset - RECORD_HEADER_SIZE).isBookkeeping()) {
+                pendingCount++;
+            }
+            offset = end;
+        }
+        setOffsets(ackOffset, offset);
+    }
+
+    private int validRecordEnd(int offset) {
+        if (offset + RECORD_HEADER_SIZE > writeOffset) {
+            return -1;
+        }
+        int length = buffer.getInt(offset);
+        int end = offset + RECORD_HEADER_SIZE + length;
+        if (length <= 0 || end > writeOffset) {
+            return -1;
+        }
+        byte[] record = new byte[length];
+        buffer.get(offset + RECORD_HEADER_SIZE, record);
+        return checksum(record) == buffer.getInt(offset + 4) ? end : -1;
+    }
+
+    public synchronized void append(TaskMutation mutation) {
+        byte[] record = mutation.encode();
+        int end = writeOffset + RECORD_HEADER_SIZE + record.length;
+        ensureCapacity(end);
+        buffer.putInt(writeOffset, record.length);
+        buffer.putInt(writeOffset + 4, checksum(record));
+        buffer.put(writeOffset + RECORD_HEADER_SIZE, record);
+        // The record only counts once the header points past it
+        setOffsets(ackOffset, end);
+        if (!mutation.isBookkeeping()) {
+            pendingCount++;
+        }
+    }
+
+    private void ensureCapacity(int end) {
+        if (end <= buffer.capacity()) {
+            return;
+        }
+        long size = Math.max((long) buffer.capacity() * 2, end);
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Task journal " + path + " is full");
+        }
+        try {
+            buffer.force();
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to grow task journal " + path, e);
+        }
+    }
+
+    /**
+     * Up to max unacknowledged records, oldest first.
+     */
+    public synchronized Batch readPending(int max) {
+        List<TaskMutation> mutations = new ArrayList<>();
+        int offset = ackOffset;
+        while (offset < writeOffset && mutations.size() < max) {
+            int length = buffer.getInt(offset);
+            mutations.add(decode(offset + RECORD_HEADER_SIZE, length));
+            offset += RECORD_HEADER_SIZE + length;
+        }
+        return new Batch(Collections.unmodifiableList(mutations), offset);
+    }
+
+    public synchronized List<TaskMutation> readAllPending() {
+        return readPending(Integer.MAX_VALUE).getMutations();
+    }
+
+    /**
+     * Marks a batch from readPending() as stored. When nothing is left pending
+     * the journal starts over at the beginning of the file.
+     */
+    public synchronized void acknowledge(Batch batch) {
+        for (TaskMutation mutation : batch.mutations) {
+            if (!mutation.isBookkeeping()) {
+                pendingCount--;
+            }
+        }
+        if (batch.endOffset == writeOffset) {
+            setOffsets(HEADER_SIZE, HEADER_SIZE);
+        } else {
+            setOffsets(batch.endOffset, writeOffset);
+        }
+    }
+
+    /**
+     * The user changes not acknowledged yet.
+     */
+    public synchronized int getPendingCount() {
+        return pendingCount;
+    }
+
+    /**
+     * Writes the mapped pages to the disk.
+     */
+    public synchronized void force() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close task journal " + path + ": " + e.getMessage());
+        }
+    }
+
+    private void setOffsets(int ack, int write) {
+        ackOffset = ack;
+        writeOffset = write;
+        buffer.putInt(ACK_OFFSET_POSITION, ack);
+        buffer.putInt(WRITE_OFFSET_POSITION, write);
+    }
+
+    private TaskMutation decode(int offset, int length) {
+        byte[] record = new byte[length];
+        buffer.get(offset, record);
+        try {
+            return TaskMutation.decode(record);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Damaged task journal record at offset " + offset, e);
+        }
+    }
+
+    private static int checksum(byte[] record) {
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        return (int) crc.getValue();
+    }
+}
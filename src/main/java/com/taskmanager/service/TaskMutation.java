@@ -0,0 +1,240 @@
+package com.taskmanager.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+
+/**
+ * One task change made in local-first mode, as recorded in the TaskJournal.
+ * A negative task id is the temporary id of a task that is not stored yet.
+ */
+public final class TaskMutation {
+
+    public enum Type {
+        CREATE,
+        UPDATE,
+        DELETE,
+        // Bookkeeping: the stored id given to a temporary id, kept so later records can be remapped
+        ID_ASSIGNED,
+        // Bookkeeping: the stored id a create is about to commit under; the commit may not have happened
+        ID_RESERVED
+    }
+
+    private final Type type;
+    private final int taskId;
+    private final int userId;
+    private final LocalDateTime madeAt;
+    private final Set<Task.Field> fields;
+    private final String title;
+    private final String description;
+    private final String priority;
+    private final LocalDate deadline;
+    private final boolean completed;
+
+    private TaskMutation(Type type, int taskId, int userId, LocalDateTime madeAt, Set<Task.Field> fields,
+                         String title, String description, String priority, LocalDate deadline, boolean completed) {
+        this.type = type;
+        this.taskId = taskId;
+        this.userId = userId;
+        this.madeAt = madeAt;
+        this.fields = fields;
+        this.title = title;
+        this.description = description;
+        this.priority = priority;
+        this.deadline = deadline;
+        this.completed = completed;
+    }
+
+    public static TaskMutation created(Task task, int userId) {
+        return of(Type.CREATE, task, userId, EnumSet.allOf(Task.Field.class), task.getCreatedAt());
+    }
+
+    public static TaskMutation updated(Task task, int userId, Set<Task.Field> fields) {
+        return of(Type.UPDATE, task, userId, EnumSet.copyOf(fields), LocalDateTime.now());
+    }
+
+    public static TaskMutation deleted(int taskId, int userId) {
+        return new TaskMutation(Type.DELETE, taskId, userId, LocalDateTime.now(), EnumSet.noneOf(Task.Field.class),
+            null, null, null, null, false);
+    }
+
+    // userId carries the stored id
+    static TaskMutation idAssigned(int temporaryId, int storedId) {
+        return new TaskMutation(Type.ID_ASSIGNED, temporaryId, storedId, LocalDateTime.now(),
+            EnumSet.noneOf(Task.Field.class), null, null, null, null, false);
+    }
+
+    static TaskMutation idReserved(int temporaryId, int storedId) {
+        return new TaskMutation(Type.ID_RESERVED, temporaryId, storedId, LocalDateTime.now(),
+            EnumSet.noneOf(Task.Field.class), null, null, null, null, false);
+    }
+
+    private static TaskMutation of(Type type, Task task, int userId, Set<Task.Field> fields, LocalDateTime madeAt) {
+        return new TaskMutation(type, task.getId(), userId, madeAt, fields,
+            task.getTitle(), task.getDescription(), task.getPriority(), task.getDeadline(), task.isCompleted());
+    }
+
+    public Type getType() { return type; }
+    public int getTaskId() { return taskId; }
+    public int getUserId() { return userId; }
+    public LocalDateTime getMadeAt() { return madeAt; }
+    public Set<Task.Field> getFields() { return fields; }
+
+    int getStoredId() { return userId; }
+
+    // Journal bookkeeping rather than a change made by the user
+    public boolean isBookkeeping() {
+        return type == Type.ID_ASSIGNED || type == Type.ID_RESERVED;
+    }
+
+    public boolean isTemporary() {
+        return taskId < 0;
+    }
+
+    TaskMutation withTaskId(int id) {
+        return new TaskMutation(type, id, userId, madeAt, fields, title, description, priority, deadline, completed);
+    }
+
+    /**
+     * This change followed by a later update of the same task: the union of the
+     * changed fields with the later values. A create stays a create, dated when
+     * the task was made.
+     */
+    TaskMutation followedBy(TaskMutation update) {
+        Set<Task.Field> merged = EnumSet.noneOf(Task.Field.class);
+        merged.addAll(fields);
+        merged.addAll(update.fields);
+        return new TaskMutation(type, taskId, userId, type == Type.CREATE ? madeAt : update.madeAt, merged,
+            pick(Task.Field.TITLE, update, update.title, title),
+            pick(Task.Field.DESCRIPTION, update, update.description, description),
+            pick(Task.Field.PRIORITY, update, update.priority, priority),
+            pick(Task.Field.DEADLINE, update, update.deadline, deadline),
+            pick(Task.Field.COMPLETED, update, update.completed, completed));
+    }
+
+    private static <T> T pick(Task.Field field, TaskMutation update, T updated, T current) {
+        return update.fields.contains(field) ? updated : current;
+    }
+
+    /**
+     * Applies the changed fields to a task, through its setters.
+     */
+    public void applyTo(Task task) {
+        for (Task.Field field : fields) {
+            switch (field) {
+                case TITLE:
+                    task.setTitle(title);
+                    break;
+                case DESCRIPTION:
+                    task.setDescription(description);
+                    break;
+                case PRIORITY:
+                    task.setPriority(priority);
+                    break;
+                case DEADLINE:
+                    task.setDeadline(deadline);
+                    break;
+                case COMPLETED:
+                    task.setCompleted(completed);
+                    break;
+            }
+        }
+    }
+
+    /**
+     * A new task holding this change's values, created and last edited when the
+     * change was made. Applying the change stamps updatedAt with the apply time.
+     */
+    public Task toTask(User user) {
+        Task task = new Task(title, description, priority, deadline, completed, user);
+        task.setCreatedAt(madeAt);
+        task.setUpdatedAt(madeAt);
+        task.setEditedAt(madeAt);
+        return task;
+    }
+
+    // Journal encoding
+    byte[] encode() {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type.ordinal());
+            out.writeInt(taskId);
+            out.writeInt(userId);
+            out.writeLong(madeAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(madeAt.getNano());
+            int bits = 0;
+            for (Task.Field field : fields) {
+                bits |= 1 << field.ordinal();
+            }
+            out.writeInt(bits);
+            writeString(out, title);
+            writeString(out, description);
+            writeString(out, priority);
+            out.writeLong(deadline != null ? deadline.toEpochDay() : Long.MIN_VALUE);
+            out.writeBoolean(completed);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException(e); // not thrown by in-memory streams
+        }
+    }
+
+    static TaskMutation decode(byte[] record) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+        Type type = Type.values()[in.readUnsignedByte()];
+        int taskId = in.readInt();
+        int userId = in.readInt();
+        LocalDateTime madeAt = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+        int bits = in.readInt();
+        Set<Task.Field> fields = EnumSet.noneOf(Task.Field.class);
+        for (Task.Field field : Task.Field.values()) {
+            if ((bits & (1 << field.ordinal())) != 0) {
+                fields.add(field);
+            }
+        }
+        String title = readString(in);
+        String description = readString(in);
+        String priority = readString(in);
+        long epochDay = in.readLong();
+        boolean completed = in.readBoolean();
+        return new TaskMutation(type, taskId, userId, madeAt, fields, title, description, priority,
+            epochDay != Long.MIN_VALUE ? LocalDate.ofEpochDay(epochDay) : null, completed);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return type + " task " + taskId + (fields.isEmpty() ? "" : " " + fields);
+    }
+}
@@ -0,0 +1,31 @@
+package com.taskmanager.service;
+
+import java.util.List;
+
+import com.taskmanager.entity.Task;
+
+/**
+ * One page of tasks in display order (newest first) and whether more rows
+ * exist beyond it in the direction it was read.
+ */
+public class TaskPage {
+    private final List<Task> tasks;
+    private final boolean hasMore;
+
+    public TaskPage(List<Task> tasks, boolean hasMore) {
+        this.tasks = tasks;
+        this.hasMore = hasMore;
+    }
+
+    public List<Task> getTasks() { return tasks; }
+    public boolean hasMore() { return hasMore; }
+    public boolean isEmpty() { return tasks.isEmpty(); }
+
+    public TaskCursor getFirstCursor() {
+        return tasks.isEmpty() ? null : TaskCursor.of(tasks.get(0));
+    }
+
+    public TaskCursor getLastCursor() {
+        return tasks.isEmpty() ? null : TaskCursor.of(tasks.get(tasks.size() - 1));
+    }
+}
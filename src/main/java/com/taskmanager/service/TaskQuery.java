@@ -0,0 +1,136 @@
+package com.taskmanager.service;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.taskmanager.entity.Task;
+
+/**
+ * Combined task filter: search text, priorities, status, deadline range and sort order.
+ * DatabaseService compiles it into a single query. Unset criteria match everything.
+ */
+public class TaskQuery {
+
+    public enum Sort {
+        CREATED_DESC,
+        CREATED_ASC,
+        DEADLINE_ASC,
+        PRIORITY,
+        TITLE
+    }
+
+    private String text;
+    private final Set<String> priorities = new LinkedHashSet<>();
+    private Boolean completed;
+    private LocalDate deadlineFrom;
+    private LocalDate deadlineTo;
+    private Sort sort = Sort.CREATED_DESC;
+
+    // Matches tasks with every word of the text somewhere in the title or description
+    public TaskQuery text(String text) {
+        this.text = text == null || text.trim().isEmpty() ? null : text.trim();
+        return this;
+    }
+
+    public TaskQuery priority(String priority) {
+        if (priority != null) {
+            priorities.add(priority);
+        }
+        return this;
+    }
+
+    public TaskQuery priorities(Collection<String> priorities) {
+        this.priorities.clear();
+        if (priorities != null) {
+            this.priorities.addAll(priorities);
+        }
+        return this;
+    }
+
+    public TaskQuery completed(Boolean completed) {
+        this.completed = completed;
+        return this;
+    }
+
+    public TaskQuery deadlineBetween(LocalDate from, LocalDate to) {
+        this.deadlineFrom = from;
+        this.deadlineTo = to;
+        return this;
+    }
+
+    public TaskQuery sortBy(Sort sort) {
+        this.sort = sort != null ? sort : Sort.CREATED_DESC;
+        return this;
+    }
+
+    public String getText() { return text; }
+    public Set<String> getPriorities() { return Collections.unmodifiableSet(priorities); }
+    public Boolean getCompleted() { return completed; }
+    public LocalDate getDeadlineFrom() { return deadlineFrom; }
+    public LocalDate getDeadlineTo() { return deadlineTo; }
+    public Sort getSort() { return sort; }
+
+    public boolean hasText() {
+        return text != null;
+    }
+
+    /**
+     * True when no filter is set, i.e. the query returns all of the user's tasks.
+     */
+    public boolean isUnfiltered() {
+        return text == null && priorities.isEmpty() && completed == null
+            && deadlineFrom == null && deadlineTo == null;
+    }
+
+    /**
+     * Evaluates every criterion except the search text against an in-memory task.
+     */
+    public boolean matchesFilters(Task task) {
+        if (completed != null && task.isCompleted() != completed) {
+            return false;
+        }
+        if (!priorities.isEmpty() && !priorities.contains(task.getPriority())) {
+            return false;
+        }
+        if (deadlineFrom != null && (task.getDeadline() == null || task.getDeadline().isBefore(deadlineFrom))) {
+            return false;
+        }
+        if (deadlineTo != null && (task.getDeadline() == null || task.getDeadline().isAfter(deadlineTo))) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * In-memory equivalent of the ORDER BY that DatabaseService uses for this sort.
+     */
+    public Comparator<Task> comparator() {
+        Comparator<Task> newestFirst = Comparator.comparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()));
+        switch (sort) {
+            case CREATED_ASC:
+                return Comparator.comparing(Task::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                    .thenComparingInt(Task::getId);
+            case DEADLINE_ASC:
+                return Comparator.comparing(Task::getDeadline, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(newestFirst);
+            case PRIORITY:
+                return Comparator.comparingInt((Task task) -> priorityRank(task.getPriority())).thenComparing(newestFirst);
+            case TITLE:
+                return Comparator.comparing(Task::getTitle, Comparator.nullsLast(Comparator.naturalOrder()))
+                    .thenComparing(newestFirst);
+            default:
+                return newestFirst.thenComparing(Comparator.comparingInt(Task::getId).reversed());
+        }
+    }
+
+    private static int priorityRank(String priority) {
+        if ("High".equals(priority)) return 0;
+        if ("Medium".equals(priority)) return 1;
+        if ("Low".equals(priority)) return 2;
+        return 3;
+    }
+}
@@ -0,0 +1,213 @@
+package com.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+import com.taskmanager.entity.Task;
+
+/**
+ * In-memory inverted index over task titles and descriptions for one user.
+ * A query term matches every token that contains it, as the database search
+ * (DatabaseService.findTasks) matches it anywhere in the text; the suffixes of
+ * the tokens are kept sorted so that is a range lookup. Results contain every
+ * query term and are ranked by where and how well they match.
+ */
+public class TaskSearchIndex {
+    private static final byte IN_TITLE = 1;
+    private static final byte IN_DESCRIPTION = 2;
+
+    // token -> (task id -> fields containing the token)
+    private final NavigableMap<String, Map<Integer, Byte>> postings = new TreeMap<>();
+    // suffix -> indexed tokens ending with it
+    private final NavigableMap<String, Set<String>> suffixes = new TreeMap<>();
+    private final Map<Integer, Task> tasksById = new HashMap<>();
+    private final Map<Integer, List<String>> tokensById = new HashMap<>();
+
+    public synchronized void rebuild(Collection<Task> tasks) {
+        postings.clear();
+        suffixes.clear();
+        tasksById.clear();
+        tokensById.clear();
+        for (Task task : tasks) {
+            add(task);
+        }
+    }
+
+    public synchronized void add(Task task) {
+        Map<String, Byte> fields = new HashMap<>();
+        collect(task.getTitle(), IN_TITLE, fields);
+        if (task.isDescriptionLoaded()) {
+            collect(task.getDescription(), IN_DESCRIPTION, fields);
+        } else {
+            // Only a preview is in memory; keep the tokens indexed from the full text
+            for (String token : tokensById.getOrDefault(task.getId(), List.of())) {
+                if ((postings.get(token).get(task.getId()) & IN_DESCRIPTION) != 0) {
+                    fields.merge(token, IN_DESCRIPTION, (a, b) -> (byte) (a | b));
+                }
+            }
+        }
+        remove(task.getId());
+
+        for (Map.Entry<String, Byte> entry : fields.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), this::addSuffixes).put(task.getId(), entry.getValue());
+        }
+        tasksById.put(task.getId(), task);
+        tokensById.put(task.getId(), new ArrayList<>(fields.keySet()));
+    }
+
+    public synchronized void update(Task task) {
+        add(task);
+    }
+
+    public synchronized void remove(int taskId) {
+        List<String> tokens = tokensById.remove(taskId);
+        tasksById.remove(taskId);
+        if (tokens == null) {
+            return;
+        }
+        for (String token : tokens) {
+            Map<Integer, Byte> docs = postings.get(token);
+            if (docs != null) {
+                docs.remove(taskId);
+                if (docs.isEmpty()) {
+                    postings.remove(token);
+                    removeSuffixes(token);
+                }
+            }
+        }
+    }
+
+    public synchronized void removeIf(Predicate<Task> filter) {
+        List<Integer> doomed = new ArrayList<>();
+        for (Task task : tasksById.values()) {
+            if (filter.test(task)) {
+                doomed.add(task.getId());
+            }
+        }
+        doomed.forEach(this::remove);
+    }
+
+    public synchronized int size() {
+        return tasksById.size();
+    }
+
+    /**
+     * Returns the tasks containing every term of the query (as a whole token or
+     * part of one), best matches first.
+     */
+    public synchronized List<Task> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>(tasksById.values());
+        }
+
+        Map<Integer, Integer> scores = null;
+        for (String term : terms) {
+            Map<Integer, Integer> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                // AND semantics: keep only tasks matching all terms so far
+                Map<Integer, Integer> merged = new HashMap<>();
+                for (Map.Entry<Integer, Integer> entry : scores.entrySet()) {
+                    Integer score = termScores.get(entry.getKey());
+                    if (score != null) {
+                        merged.put(entry.getKey(), entry.getValue() + score);
+                    }
+                }
+                scores = merged;
+            }
+            if (scores.isEmpty()) {
+                return new ArrayList<>();
+            }
+        }
+
+        List<Task> results = new ArrayList<>(scores.size());
+        for (Integer id : scores.keySet()) {
+            results.add(tasksById.get(id));
+        }
+        Map<Integer, Integer> finalScores = scores;
+        results.sort(Comparator.<Task>comparingInt(task -> finalScores.get(task.getId())).reversed()
+            .thenComparing(Task::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return results;
+    }
+
+    private Map<Integer, Integer> scoreTerm(String term) {
+        // Tokens containing the term are those with a suffix starting with it
+        Set<String> tokens = new HashSet<>();
+        for (Set<String> ending : suffixes.subMap(term, true, term + Character.MAX_VALUE, false).values()) {
+            tokens.addAll(ending);
+        }
+        Map<Integer, Integer> scores = new HashMap<>();
+        for (String token : tokens) {
+            boolean exact = token.length() == term.length();
+            for (Map.Entry<Integer, Byte> doc : postings.get(token).entrySet()) {
+                int score = weight(doc.getValue(), exact);
+                scores.merge(doc.getKey(), score, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // Called when a token is first indexed; returns its (empty) postings
+    private Map<Integer, Byte> addSuffixes(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            suffixes.computeIfAbsent(token.substring(i), k -> new HashSet<>()).add(token);
+        }
+        return new HashMap<>();
+    }
+
+    private void removeSuffixes(String token) {
+        for (int i = 0; i < token.length(); i++) {
+            Set<String> ending = suffixes.get(token.substring(i));
+            if (ending != null && ending.remove(token) && ending.isEmpty()) {
+                suffixes.remove(token.substring(i));
+            }
+        }
+    }
+
+    private static int weight(byte fields, boolean exact) {
+        int score = 0;
+        if ((fields & IN_TITLE) != 0) {
+            score += 4;
+        }
+        if ((fields & IN_DESCRIPTION) != 0) {
+            score += 1;
+        }
+        return exact ? score * 2 : score;
+    }
+
+    private static void collect(String text, byte field, Map<String, Byte> fields) {
+        for (String token : tokenize(text)) {
+            fields.merge(token, field, (a, b) -> (byte) (a | b));
+        }
+    }
+
+    // Search terms are tokenized the same way, so the database search uses it too
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(text.substring(start, i).toLowerCase());
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+}
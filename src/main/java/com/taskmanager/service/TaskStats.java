@@ -0,0 +1,24 @@
+package com.taskmanager.service;
+
+/**
+ * Task counts for the dashboard: total, completed, pending, pending high-priority and overdue.
+ */
+public class TaskStats {
+    private final int total;
+    private final int completed;
+    private final int highPriority;
+    private final int overdue;
+
+    public TaskStats(int total, int completed, int highPriority, int overdue) {
+        this.total = total;
+        this.completed = completed;
+        this.highPriority = highPriority;
+        this.overdue = overdue;
+    }
+
+    public int getTotal() { return total; }
+    public int getCompleted() { return completed; }
+    public int getPending() { return total - completed; }
+    public int getHighPriority() { return highPriority; }
+    public int getOverdue() { return overdue; }
+}
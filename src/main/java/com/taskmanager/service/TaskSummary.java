@@ -0,0 +1,56 @@
+package com.taskmanager.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.entity.User;
+
+/**
+ * Read-only row of the task list queries: the columns the dashboard shows, with
+ * only the start of the description. Built by the query itself, so no entity is
+ * managed and the full description CLOB is never read.
+ */
+public class TaskSummary {
+    private final int id;
+    private final String title;
+    private final String descriptionPreview;
+    private final int descriptionLength;
+    private final String priority;
+    private final LocalDate deadline;
+    private final boolean completed;
+    private final LocalDateTime createdAt;
+
+    public TaskSummary(int id, String title, String descriptionPreview, Integer descriptionLength,
+                       String priority, LocalDate deadline, Boolean completed, LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.descriptionPreview = descriptionPreview;
+        this.descriptionLength = descriptionLength != null ? descriptionLength : 0;
+        this.priority = priority;
+        this.deadline = deadline;
+        this.completed = completed != null && completed;
+        this.createdAt = createdAt;
+    }
+
+    public int getId() { return id; }
+    public String getTitle() { return title; }
+    public String getDescriptionPreview() { return descriptionPreview; }
+    public String getPriority() { return priority; }
+    public LocalDate getDeadline() { return deadline; }
+    public boolean isCompleted() { return completed; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+
+    public boolean isDescriptionComplete() {
+        return descriptionPreview == null || descriptionPreview.length() >= descriptionLength;
+    }
+
+    /**
+     * A detached task for the list; its description is the preview until
+     * {@link Task#setLoadedDescription(String)} supplies the full text.
+     */
+    public Task toTask(User user) {
+        return Task.fromSummary(id, title, descriptionPreview, isDescriptionComplete(),
+            priority, deadline, completed, createdAt, user);
+    }
+}
@@ -0,0 +1,365 @@
+package com.taskmanager.service;
+
+import java.nio.file.Paths;
+import java.sql.SQLDataException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.DataException;
+
+import com.taskmanager.config.ConfigManager;
+
+/**
+ * Local-first task storage. Edits are appended to the TaskJournal and shown
+ * right away; a background thread replays the journal against the database
+ * in batches. Within a batch the changes to one task are folded into one
+ * (a task created and deleted offline never reaches the database), new tasks
+ * get their stored ids in place of temporary negative ones, and an update that
+ * lost to a later edit elsewhere is reported as a conflict.
+ *
+ * While the database is unreachable the journal keeps the edits and sync
+ * retries with exponential backoff. A batch is acknowledged right after it
+ * commits and its new ids are recorded; a crash in between replays it on the
+ * next start, which rewrites the same values and skips recorded creates.
+ * Creates are made idempotent by journaling the ids they are inserted under
+ * just before the commit: if the outcome of that commit is unknown, the next
+ * sync looks the ids up and adopts those that were stored instead of
+ * inserting the tasks again.
+ */
+public class TaskSyncEngine {
+
+    /**
+     * Notified on the sync thread.
+     */
+    public interface Listener {
+        // Stored ids of new tasks, keyed by their temporary ids
+        void idsAssigned(Map<Integer, Integer> assignedIds);
+
+        // Changes rejected by the database; the stored tasks differ from the local ones
+        void conflicts(List<TaskMutation> rejected);
+
+        void statusChanged(int pendingChanges, boolean online);
+    }
+
+    private static TaskSyncEngine instance;
+
+    private final DatabaseService databaseService;
+    private final TaskJournal journal;
+    private final ScheduledExecutorService executor;
+    private final int batchSize;
+    private final long intervalMillis;
+    private final long maxBackoffMillis;
+
+    // Temporary ids of new tasks count down from -1, continuing below any still in the journal
+    private final AtomicInteger nextTemporaryId = new AtomicInteger(-1);
+    private final Map<Integer, Integer> assignedIds = new ConcurrentHashMap<>();
+    // Ids of creates that may or may not have committed, keyed by temporary id
+    private final Map<Integer, Integer> reservedIds = new ConcurrentHashMap<>();
+
+    // Held for a whole sync so a caller that syncs waits for one already running
+    private final Object syncLock = new Object();
+    private long retryAt;
+    private long backoffMillis;
+    private volatile boolean online = true;
+
+    private volatile Listener listener;
+
+    private TaskSyncEngine() {
+        ConfigManager config = ConfigManager.getInstance();
+        this.databaseService = DatabaseService.getInstance();
+        this.journal = TaskJournal.open(Paths.get(config.getSyncJournalPath()));
+        this.batchSize = config.getSyncBatchSize();
+        this.intervalMillis = config.getSyncIntervalMs();
+        this.maxBackoffMillis = config.getSyncMaxBackoffMs();
+
+        for (TaskMutation mutation : journal.readAllPending()) {
+            if (mutation.getType() == TaskMutation.Type.ID_ASSIGNED) {
+                assignedIds.put(mutation.getTaskId(), mutation.getStoredId());
+                reservedIds.remove(mutation.getTaskId());
+            } else if (mutation.getType() == TaskMutation.Type.ID_RESERVED) {
+                reservedIds.put(mutation.getTaskId(), mutation.getStoredId());
+            }
+            if (mutation.getTaskId() <= nextTemporaryId.get()) {
+                nextTemporaryId.set(mutation.getTaskId() - 1);
+            }
+        }
+
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-sync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::syncInBackground, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized TaskSyncEngine getInstance() {
+        if (instance == null) {
+            instance = new TaskSyncEngine();
+        }
+        return instance;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    public int nextTemporaryId() {
+        return nextTemporaryId.getAndDecrement();
+    }
+
+    /**
+     * Appends a change to the journal; it is written to the database by the next sync.
+     */
+    public void record(TaskMutation mutation) {
+        journal.append(mutation);
+        notifyStatus();
+    }
+
+    // Changes made by the user and not stored yet
+    public int getPendingCount() {
+        return journal.getPendingCount();
+    }
+
+    public boolean hasPending() {
+        return journal.getPendingCount() > 0;
+    }
+
+    public boolean isOnline() {
+        return online;
+    }
+
+    /**
+     * The user's changes not stored yet, folded to one per task, with the stored
+     * ids known so far. Used to show local edits on top of a fresh database read.
+     */
+    public List<TaskMutation> getPendingChanges(int userId) {
+        List<TaskMutation> pending = new ArrayList<>();
+        for (TaskMutation mutation : fold(journal.readAllPending())) {
+            if (mutation.getUserId() == userId) {
+                pending.add(mutation);
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Syncs everything pending on the calling thread. Returns false, keeping
+     * the changes, when the database could not be reached.
+     */
+    public boolean syncNow() {
+        synchronized (syncLock) {
+            return syncPending();
+        }
+    }
+
+    private void syncInBackground() {
+        synchronized (syncLock) {
+            if (System.currentTimeMillis() < retryAt || !hasPending()) {
+                return;
+            }
+            syncPending();
+        }
+    }
+
+    private boolean syncPending() {
+        journal.force();
+        try {
+            resolveReservedIds();
+            while (true) {
+                TaskJournal.Batch batch = journal.readPending(batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                apply(fold(batch.getMutations()));
+                journal.acknowledge(batch);
+            }
+            backoffMillis = 0;
+            retryAt = 0;
+            online = true;
+            return true;
+        } catch (RuntimeException e) {
+            backoffMillis = backoffMillis == 0 ? intervalMillis : Math.min(backoffMillis * 2, maxBackoffMillis);
+            retryAt = System.currentTimeMillis() + backoffMillis;
+            if (online) {
+                System.err.println("Task sync paused, retrying with backoff: " + AsyncDatabaseService.rootCause(e).getMessage());
+            }
+            online = false;
+            return false;
+        } finally {
+            notifyStatus();
+        }
+    }
+
+    /**
+     * Folds a run of journal records into one change per task, in journal order,
+     * with temporary ids replaced by stored ids where known.
+     */
+    private List<TaskMutation> fold(List<TaskMutation> mutations) {
+        Map<Integer, TaskMutation> net = new LinkedHashMap<>();
+        for (TaskMutation mutation : mutations) {
+            if (mutation.isBookkeeping()) {
+                continue;
+            }
+            Integer storedId = mutation.isTemporary() ? assignedIds.get(mutation.getTaskId()) : null;
+            if (storedId != null) {
+                mutation = mutation.withTaskId(storedId);
+            }
+            TaskMutation earlier = net.get(mutation.getTaskId());
+            switch (mutation.getType()) {
+                case CREATE:
+                    if (storedId == null) { // else stored before a crash, only the acknowledgement was lost
+                        net.put(mutation.getTaskId(), mutation);
+                    }
+                    break;
+                case UPDATE:
+                    net.put(mutation.getTaskId(), earlier != null && earlier.getType() != TaskMutation.Type.DELETE
+                        ? earlier.followedBy(mutation) : mutation);
+                    break;
+                case DELETE:
+                    if (earlier != null && earlier.getType() == TaskMutation.Type.CREATE) {
+                        net.remove(mutation.getTaskId()); // never stored
+                    } else {
+                        net.put(mutation.getTaskId(), mutation);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return new ArrayList<>(net.values());
+    }
+
+    private void apply(List<TaskMutation> changes) {
+        List<TaskMutation> rejected = new ArrayList<>();
+        List<TaskMutation> stored = new ArrayList<>();
+        for (TaskMutation change : changes) {
+            // The create of a temporary id was lost (e.g. a crash before its id was recorded)
+            if (change.isTemporary() && change.getType() != TaskMutation.Type.CREATE) {
+                rejected.add(change);
+            } else {
+                stored.add(change);
+            }
+        }
+        if (stored.isEmpty()) {
+            report(Map.of(), rejected);
+            return;
+        }
+
+        TaskSyncResult result;
+        try {
+            result = databaseService.applyTaskMutations(stored, this::reserve);
+        } catch (RuntimeException e) {
+            if (!isRejectedData(e)) {
+                throw e;
+            }
+            // Bad data, not a lost connection: apply one by one so only the offending changes are dropped
+            result = applyIndividually(stored);
+        }
+        rejected.addAll(result.getConflicts());
+        report(result.getAssignedIds(), rejected);
+    }
+
+    private TaskSyncResult applyIndividually(List<TaskMutation> changes) {
+        Map<Integer, Integer> assigned = new LinkedHashMap<>();
+        List<TaskMutation> rejected = new ArrayList<>();
+        for (TaskMutation change : changes) {
+            try {
+                TaskSyncResult result = databaseService.applyTaskMutations(List.of(change), this::reserve);
+                assigned.putAll(result.getAssignedIds());
+                rejected.addAll(result.getConflicts());
+            } catch (RuntimeException e) {
+                if (!isRejectedData(e)) {
+                    throw e;
+                }
+                System.err.println("Task sync rejected " + change + ": " + AsyncDatabaseService.rootCause(e).getMessage());
+                rejected.add(change);
+            }
+        }
+        return new TaskSyncResult(assigned, rejected);
+    }
+
+    // Called before the commit of new tasks; on the disk before the commit is sent
+    private void reserve(Map<Integer, Integer> ids) {
+        ids.forEach((temporaryId, storedId) -> journal.append(TaskMutation.idReserved(temporaryId, storedId)));
+        reservedIds.putAll(ids);
+        journal.force();
+    }
+
+    /**
+     * Settles creates whose commit was not confirmed (a crash or a lost
+     * connection after the insert): reserved ids found in the database were
+     * stored and are recorded as assigned; the others are inserted again.
+     */
+    private void resolveReservedIds() {
+        if (reservedIds.isEmpty()) {
+            return;
+        }
+        Map<Integer, Integer> reserved = new LinkedHashMap<>(reservedIds);
+        Set<Integer> stored = databaseService.findStoredTaskIds(reserved.values());
+        Map<Integer, Integer> committed = new LinkedHashMap<>();
+        reserved.forEach((temporaryId, storedId) -> {
+            if (stored.contains(storedId)) {
+                committed.put(temporaryId, storedId);
+            }
+            reservedIds.remove(temporaryId, storedId);
+        });
+        report(committed, List.of());
+    }
+
+    private void report(Map<Integer, Integer> assigned, List<TaskMutation> rejected) {
+        // Recorded in the journal so records appended before the UI saw the new ids can still be remapped
+        assigned.forEach((temporaryId, storedId) -> journal.append(TaskMutation.idAssigned(temporaryId, storedId)));
+        assignedIds.putAll(assigned);
+        reservedIds.keySet().removeAll(assigned.keySet());
+
+        Listener current = listener;
+        if (current != null) {
+            if (!assigned.isEmpty()) {
+                current.idsAssigned(assigned);
+            }
+            if (!rejected.isEmpty()) {
+                current.conflicts(rejected);
+            }
+        }
+    }
+
+    private static boolean isRejectedData(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException || cause instanceof DataException
+                    || cause instanceof SQLIntegrityConstraintViolationException || cause instanceof SQLDataException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void notifyStatus() {
+        Listener current = listener;
+        if (current != null) {
+            current.statusChanged(journal.getPendingCount(), online);
+        }
+    }
+
+    /**
+     * Stops the timer, makes a last sync attempt unless the database is known to
+     * be unreachable, and closes the journal; used at shutdown. Anything not
+     * synced stays in the journal for the next start.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        if (online) {
+            syncNow();
+        }
+        journal.close();
+    }
+}
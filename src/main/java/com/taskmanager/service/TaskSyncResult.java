@@ -0,0 +1,22 @@
+package com.taskmanager.service;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of applying a batch of journaled task mutations: the stored ids
+ * given to new tasks, keyed by their temporary ids, and the mutations that
+ * were rejected as conflicts.
+ */
+public class TaskSyncResult {
+    private final Map<Integer, Integer> assignedIds;
+    private final List<TaskMutation> conflicts;
+
+    public TaskSyncResult(Map<Integer, Integer> assignedIds, List<TaskMutation> conflicts) {
+        this.assignedIds = assignedIds;
+        this.conflicts = conflicts;
+    }
+
+    public Map<Integer, Integer> getAssignedIds() { return assignedIds; }
+    public List<TaskMutation> getConflicts() { return conflicts; }
+}
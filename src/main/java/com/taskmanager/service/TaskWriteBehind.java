@@ -0,0 +1,137 @@
+package com.taskmanager.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import com.taskmanager.config.ConfigManager;
+import com.taskmanager.entity.Task;
+
+/**
+ * Write-behind buffer for task edits. Edits are keyed by task id, so repeated
+ * changes to one task collapse into a single write, and everything pending is
+ * saved in one batched transaction a short delay after the first edit.
+ */
+public class TaskWriteBehind {
+    private static TaskWriteBehind instance;
+
+    private final DatabaseService databaseService;
+    private final ScheduledExecutorService executor;
+    private final long delayMillis;
+
+    // Guarded by this; the future completes when the pending tasks are written
+    private Map<Integer, Task> pending = new LinkedHashMap<>();
+    private CompletableFuture<Void> pendingFlush = new CompletableFuture<>();
+    private boolean flushScheduled;
+
+    // Held for a whole flush so a caller that flushes waits for one already running
+    private final Object flushLock = new Object();
+
+    private volatile BiConsumer<List<Task>, Throwable> failureHandler;
+
+    private TaskWriteBehind() {
+        this.databaseService = DatabaseService.getInstance();
+        this.delayMillis = ConfigManager.getInstance().getWriteBehindDelayMs();
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "task-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized TaskWriteBehind getInstance() {
+        if (instance == null) {
+            instance = new TaskWriteBehind();
+        }
+        return instance;
+    }
+
+    /**
+     * Called once per failed flush with the tasks that were not saved.
+     */
+    public void setFailureHandler(BiConsumer<List<Task>, Throwable> failureHandler) {
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * Queues the task's current state for writing. The returned future completes
+     * when the flush that includes it has committed (or failed).
+     */
+    public synchronized CompletableFuture<Void> enqueue(Task task) {
+        pending.put(task.getId(), task);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            executor.schedule(this::flush, delayMillis, TimeUnit.MILLISECONDS);
+        }
+        return pendingFlush;
+    }
+
+    public synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+
+    /**
+     * Writes everything pending on the calling thread.
+     */
+    public void flush() {
+        synchronized (flushLock) {
+            writePending();
+        }
+    }
+
+    private void writePending() {
+        List<Task> batch;
+        CompletableFuture<Void> done;
+        synchronized (this) {
+            batch = new ArrayList<>(pending.values());
+            done = pendingFlush;
+            pending = new LinkedHashMap<>();
+            pendingFlush = new CompletableFuture<>();
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            done.complete(null);
+            return;
+        }
+        try {
+            databaseService.updateTasks(batch);
+            done.complete(null);
+        } catch (Exception e) {
+            BiConsumer<List<Task>, Throwable> handler = failureHandler;
+            if (handler != null) {
+                handler.accept(batch, e);
+            } else {
+                System.err.println("Failed to write " + batch.size() + " task(s): " + e.getMessage());
+            }
+            done.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Writes anything still pending and stops the timer; used at shutdown.
+     */
+    public void shutdown() {
+        executor.shutdown();
+        flush();
+    }
+
+    /**
+     * Shuts down the instance if one was created; with write-behind disabled
+     * there is none, and none is started just to be stopped.
+     */
+    public static void shutdownIfStarted() {
+        TaskWriteBehind current;
+        synchronized (TaskWriteBehind.class) {
+            current = instance;
+        }
+        if (current != null) {
+            current.shutdown();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.taskmanager.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+/**
+ * Live gauges and acquisition-latency statistics for the JDBC connection pool.
+ * The pool reports every connection checkout through {@link IMetricsTracker}.
+ */
+public class ConnectionPoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+    private static ConnectionPoolMetrics instance;
+
+    private volatile HikariPoolMXBean pool;
+
+    private final LongAdder acquisitions = new LongAdder();
+    private final LongAdder acquisitionNanos = new LongAdder();
+    private final AtomicLong maxAcquisitionNanos = new AtomicLong();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder connectionsCreated = new LongAdder();
+    private final LongAdder usageMillis = new LongAdder();
+
+    private ConnectionPoolMetrics() {
+    }
+
+    public static synchronized ConnectionPoolMetrics getInstance() {
+        if (instance == null) {
+            instance = new ConnectionPoolMetrics();
+        }
+        return instance;
+    }
+
+    void bind(HikariPoolMXBean pool) {
+        this.pool = pool;
+    }
+
+    // MetricsTrackerFactory
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return this;
+    }
+
+    // IMetricsTracker
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquisitions.increment();
+        acquisitionNanos.add(elapsedAcquiredNanos);
+        maxAcquisitionNanos.accumulateAndGet(elapsedAcquiredNanos, Math::max);
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        connectionsCreated.increment();
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    // Gauges
+    public int getActiveConnections() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getActiveConnections() : 0;
+    }
+
+    public int getIdleConnections() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getIdleConnections() : 0;
+    }
+
+    public int getPendingThreads() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getThreadsAwaitingConnection() : 0;
+    }
+
+    public int getTotalConnections() {
+        HikariPoolMXBean p = pool;
+        return p != null ? p.getTotalConnections() : 0;
+    }
+
+    // Acquisition statistics
+    public long getAcquisitionCount() {
+        return acquisitions.sum();
+    }
+
+    public double getMeanAcquisitionMillis() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0.0 : acquisitionNanos.sum() / (double) count / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public double getMaxAcquisitionMillis() {
+        return maxAcquisitionNanos.get() / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    public long getTimeoutCount() {
+        return timeouts.sum();
+    }
+
+    public long getConnectionsCreated() {
+        return connectionsCreated.sum();
+    }
+
+    public double getMeanUsageMillis() {
+        long count = acquisitions.sum();
+        return count == 0 ? 0.0 : usageMillis.sum() / (double) count;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            "Pool[active=%d, idle=%d, pending=%d, total=%d, acquisitions=%d, meanAcquire=%.3fms, maxAcquire=%.3fms, timeouts=%d]",
+            getActiveConnections(), getIdleConnections(), getPendingThreads(), getTotalConnections(),
+            getAcquisitionCount(), getMeanAcquisitionMillis(), getMaxAcquisitionMillis(), getTimeoutCount());
+    }
+}
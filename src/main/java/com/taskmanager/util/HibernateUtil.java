@@ -1,29 +1,122 @@
 package com.taskmanager.util;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.hibernate.SessionFactory;
 import org.hibernate.cfg.Configuration;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+
+import com.taskmanager.config.ConfigManager;
 
 public class HibernateUtil {
 
-    private static SessionFactory sessionFactory;
+    // Built once, by startup or by the first database call, whichever comes first
+    private static volatile SessionFactory sessionFactory;
 
     public static SessionFactory getSessionFactory() {
-        if (sessionFactory == null) {
-            try {
-                sessionFactory = new Configuration()
-                        .configure("hibernate.cfg.xml")
-                        .buildSessionFactory();
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException("Failed to build Hibernate SessionFactory");
+        SessionFactory factory = sessionFactory;
+        if (factory == null) {
+            synchronized (HibernateUtil.class) {
+                if (sessionFactory == null) {
+                    try {
+                        Configuration configuration = new Configuration().configure("hibernate.cfg.xml");
+                        applyConfig(configuration, ConfigManager.getInstance());
+                        sessionFactory = configuration.buildSessionFactory();
+                        OperationMetrics.register(PersistenceStatistics.OBJECT_NAME,
+                            new PersistenceStatistics(sessionFactory.getStatistics()));
+                    } catch (Exception e) {
+                        e.printStackTrace();
+                        throw new RuntimeException("Failed to build Hibernate SessionFactory", e);
+                    }
+                }
+                factory = sessionFactory;
             }
         }
-        return sessionFactory;
+        return factory;
+    }
+
+    /**
+     * Checks out the given number of connections at once and returns them, so
+     * the pool opens them now rather than on the first queries.
+     */
+    public static void warmConnectionPool(int connections) {
+        ConnectionProvider provider = ((SessionFactoryImplementor) getSessionFactory())
+            .getServiceRegistry().getService(ConnectionProvider.class);
+        List<Connection> opened = new ArrayList<>(connections);
+        try {
+            for (int i = 0; i < connections; i++) {
+                Connection connection = provider.getConnection();
+                opened.add(connection);
+                connection.isValid(5);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Failed to warm the connection pool: " + e.getMessage(), e);
+        } finally {
+            for (Connection connection : opened) {
+                try {
+                    provider.closeConnection(connection);
+                } catch (SQLException e) {
+                    System.err.println("Failed to return a connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static void applyConfig(Configuration configuration, ConfigManager config) {
+        // Connections come from the pool, which reads its settings from ConfigManager
+        configuration.setProperty("hibernate.connection.provider_class", PooledConnectionProvider.class.getName());
+        configuration.setProperty("hibernate.dialect", config.getHibernateDialect());
+        configuration.setProperty("hibernate.hbm2ddl.auto", config.getHibernateHbm2ddl());
+        configuration.setProperty("hibernate.show_sql", String.valueOf(config.isHibernateShowSql()));
+        configuration.setProperty("hibernate.format_sql", String.valueOf(config.isHibernateFormatSql()));
+        
+        // Sequence values are handed out in blocks and inserts/updates are batched
+        configuration.setProperty("hibernate.id.optimizer.pooled.preferred", config.getIdOptimizer());
+        configuration.setProperty("hibernate.jdbc.batch_size", String.valueOf(config.getJdbcBatchSize()));
+        configuration.setProperty("hibernate.order_inserts", "true");
+        configuration.setProperty("hibernate.order_updates", "true");
+        
+        // Users and preferences are read far more often than written, so they are cached
+        boolean cacheEnabled = config.isCacheEnabled();
+        configuration.setProperty("hibernate.cache.use_second_level_cache", String.valueOf(cacheEnabled));
+        configuration.setProperty("hibernate.cache.use_query_cache", String.valueOf(cacheEnabled));
+        if (cacheEnabled) {
+            configuration.setProperty("hibernate.cache.region.factory_class", "jcache");
+            configuration.getProperties().put("hibernate.javax.cache.cache_manager", SecondLevelCache.getCacheManager(config));
+        }
+        configuration.setProperty("hibernate.generate_statistics",
+            String.valueOf(config.isCacheStatisticsEnabled() || config.isMetricsEnabled()));
+        // Statistics are read on demand; don't log metrics for every session
+        configuration.setProperty("hibernate.session.events.log", "false");
+    }
+
+    public static ConnectionPoolMetrics getPoolMetrics() {
+        return ConnectionPoolMetrics.getInstance();
+    }
+
+    public static Statistics getStatistics() {
+        return getSessionFactory().getStatistics();
+    }
+
+    public static OperationMetrics getOperationMetrics() {
+        return OperationMetrics.getInstance();
     }
 
     public static void shutdown() {
         if (sessionFactory != null) {
+            System.out.println(getPoolMetrics());
+            System.out.println(SecondLevelCache.describe(sessionFactory.getStatistics()));
+            if (getOperationMetrics().isEnabled()) {
+                System.out.println(getOperationMetrics());
+            }
+            OperationMetrics.unregister(PersistenceStatistics.OBJECT_NAME);
             sessionFactory.close();
         }
+        SecondLevelCache.close();
     }
 }
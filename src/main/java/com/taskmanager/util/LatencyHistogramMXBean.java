@@ -0,0 +1,22 @@
+package com.taskmanager.util;
+
+/**
+ * JMX view of one operation's latency histogram, registered as
+ * {@code com.taskmanager:type=Operation,name=<operation>}.
+ */
+public interface LatencyHistogramMXBean {
+
+    long getCount();
+
+    long getErrorCount();
+
+    double getMeanMillis();
+
+    double getP50Millis();
+
+    double getP99Millis();
+
+    double getMaxMillis();
+
+    void reset();
+}
@@ -0,0 +1,142 @@
+package com.taskmanager.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.taskmanager.config.ConfigManager;
+
+/**
+ * Call counts, error counts and latency histograms for named operations
+ * (DatabaseService calls, TaskController actions). Each operation is also
+ * published over JMX as {@code com.taskmanager:type=Operation,name=<operation>}.
+ * With {@code metrics.enabled=false} calls run untimed.
+ */
+public class OperationMetrics {
+    private static OperationMetrics instance;
+
+    private final boolean enabled;
+    private final Map<String, LatencyHistogram> operations = new ConcurrentHashMap<>();
+
+    private OperationMetrics() {
+        this.enabled = ConfigManager.getInstance().isMetricsEnabled();
+    }
+
+    public static synchronized OperationMetrics getInstance() {
+        if (instance == null) {
+            instance = new OperationMetrics();
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public <T> T time(String operation, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            T result = call.get();
+            failed = false;
+            return result;
+        } finally {
+            record(operation, System.nanoTime() - start, failed);
+        }
+    }
+
+    public void run(String operation, Runnable call) {
+        time(operation, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Records one call that started at {@code startNanos} (from System.nanoTime)
+     * and has just finished.
+     */
+    public void recordSince(String operation, long startNanos, boolean failed) {
+        record(operation, System.nanoTime() - startNanos, failed);
+    }
+
+    public void record(String operation, long nanos, boolean failed) {
+        if (enabled) {
+            histogram(operation).record(nanos, failed);
+        }
+    }
+
+    private LatencyHistogram histogram(String operation) {
+        LatencyHistogram histogram = operations.get(operation);
+        if (histogram == null) {
+            histogram = operations.computeIfAbsent(operation, name -> {
+                LatencyHistogram created = new LatencyHistogram(name);
+                register("com.taskmanager:type=Operation,name=" + ObjectName.quote(name), created);
+                return created;
+            });
+        }
+        return histogram;
+    }
+
+    /**
+     * All operations seen so far, slowest p99 first.
+     */
+    public List<LatencyHistogram> getOperations() {
+        List<LatencyHistogram> sorted = new ArrayList<>(operations.values());
+        sorted.sort(Comparator.comparingDouble(LatencyHistogram::getP99Millis).reversed());
+        return sorted;
+    }
+
+    public void reset() {
+        operations.values().forEach(LatencyHistogram::reset);
+    }
+
+    /**
+     * Registers an MBean under the given name, replacing one left by an
+     * earlier registration. JMX is diagnostics only, so failures are logged.
+     */
+    static void register(String name, Object mbean) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+            server.registerMBean(mbean, objectName);
+        } catch (JMException e) {
+            System.err.println("Failed to register MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    static void unregister(String name) {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(name);
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            System.err.println("Failed to unregister MBean " + name + ": " + e.getMessage());
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder summary = new StringBuilder("Operations:");
+        for (LatencyHistogram histogram : getOperations()) {
+            summary.append(System.lineSeparator()).append("  ").append(histogram);
+        }
+        return summary.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskmanager.util;
+
+import org.hibernate.stat.Statistics;
+
+/**
+ * Exports the SessionFactory's Hibernate statistics over JMX and formats them
+ * for the diagnostics panel. Hibernate 6 no longer publishes them itself.
+ */
+public class PersistenceStatistics implements PersistenceStatisticsMXBean {
+    static final String OBJECT_NAME = "com.taskmanager:type=HibernateStatistics";
+
+    private final Statistics statistics;
+
+    PersistenceStatistics(Statistics statistics) {
+        this.statistics = statistics;
+    }
+
+    @Override
+    public boolean isStatisticsEnabled() {
+        return statistics.isStatisticsEnabled();
+    }
+
+    @Override
+    public long getQueryExecutionCount() {
+        return statistics.getQueryExecutionCount();
+    }
+
+    @Override
+    public long getQueryExecutionMaxTimeMillis() {
+        return statistics.getQueryExecutionMaxTime();
+    }
+
+    @Override
+    public String getQueryExecutionMaxTimeQueryString() {
+        return statistics.getQueryExecutionMaxTimeQueryString();
+    }
+
+    @Override
+    public long getPrepareStatementCount() {
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Override
+    public long getEntityLoadCount() {
+        return statistics.getEntityLoadCount();
+    }
+
+    @Override
+    public long getEntityFetchCount() {
+        return statistics.getEntityFetchCount();
+    }
+
+    @Override
+    public long getEntityInsertCount() {
+        return statistics.getEntityInsertCount();
+    }
+
+    @Override
+    public long getEntityUpdateCount() {
+        return statistics.getEntityUpdateCount();
+    }
+
+    @Override
+    public long getEntityDeleteCount() {
+        return statistics.getEntityDeleteCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheHitCount() {
+        return statistics.getSecondLevelCacheHitCount();
+    }
+
+    @Override
+    public long getSecondLevelCacheMissCount() {
+        return statistics.getSecondLevelCacheMissCount();
+    }
+
+    @Override
+    public long getQueryCacheHitCount() {
+        return statistics.getQueryCacheHitCount();
+    }
+
+    @Override
+    public long getQueryCacheMissCount() {
+        return statistics.getQueryCacheMissCount();
+    }
+
+    @Override
+    public long getSessionOpenCount() {
+        return statistics.getSessionOpenCount();
+    }
+
+    @Override
+    public long getTransactionCount() {
+        return statistics.getTransactionCount();
+    }
+
+    @Override
+    public void clear() {
+        statistics.clear();
+    }
+
+    public static String describe(Statistics statistics) {
+        if (!statistics.isStatisticsEnabled()) {
+            return "Hibernate statistics disabled (metrics.enabled=false, cache.statistics=false)";
+        }
+        return String.format("Hibernate:%n"
+                + "  queries=%d, slowest=%dms, statements prepared=%d%n"
+                + "  entities loaded=%d, fetched=%d, inserted=%d, updated=%d, deleted=%d%n"
+                + "  second-level cache hits=%d, misses=%d; query cache hits=%d, misses=%d%n"
+                + "  sessions=%d, transactions=%d%n"
+                + "  slowest query: %s",
+            statistics.getQueryExecutionCount(), statistics.getQueryExecutionMaxTime(),
+            statistics.getPrepareStatementCount(),
+            statistics.getEntityLoadCount(), statistics.getEntityFetchCount(), statistics.getEntityInsertCount(),
+            statistics.getEntityUpdateCount(), statistics.getEntityDeleteCount(),
+            statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(),
+            statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+            statistics.getSessionOpenCount(), statistics.getTransactionCount(),
+            statistics.getQueryExecutionMaxTimeQueryString());
+    }
+}
@@ -0,0 +1,42 @@
+package com.taskmanager.util;
+
+/**
+ * JMX view of the Hibernate statistics, registered as
+ * {@code com.taskmanager:type=HibernateStatistics}.
+ */
+public interface PersistenceStatisticsMXBean {
+
+    boolean isStatisticsEnabled();
+
+    long getQueryExecutionCount();
+
+    long getQueryExecutionMaxTimeMillis();
+
+    String getQueryExecutionMaxTimeQueryString();
+
+    long getPrepareStatementCount();
+
+    long getEntityLoadCount();
+
+    long getEntityFetchCount();
+
+    long getEntityInsertCount();
+
+    long getEntityUpdateCount();
+
+    long getEntityDeleteCount();
+
+    long getSecondLevelCacheHitCount();
+
+    long getSecondLevelCacheMissCount();
+
+    long getQueryCacheHitCount();
+
+    long getQueryCacheMissCount();
+
+    long getSessionOpenCount();
+
+    long getTransactionCount();
+
+    void clear();
+}
@@ -0,0 +1,143 @@
+package com.taskmanager.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.service.UnknownUnwrapTypeException;
+import org.hibernate.service.spi.Configurable;
+import org.hibernate.service.spi.Stoppable;
+
+import com.taskmanager.config.ConfigManager;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Hibernate ConnectionProvider backed by a HikariCP pool.
+ * All pool settings come from ConfigManager. For the embedded H2 profiles the
+ * schema script is run once the pool is up.
+ */
+public class PooledConnectionProvider implements ConnectionProvider, Configurable, Stoppable {
+
+    private static final String EMBEDDED_SCHEMA_SCRIPT = "/sql/create_schema_h2.sql";
+
+    private HikariDataSource dataSource;
+
+    // Null when the slow query log is disabled
+    private SlowQueryLog slowQueryLog;
+
+    @Override
+    public void configure(Map<String, Object> configurationValues) {
+        ConfigManager config = ConfigManager.getInstance();
+
+        HikariConfig hikari = new HikariConfig();
+        hikari.setPoolName("TaskManagerPool");
+        hikari.setDriverClassName(config.getDbDriver());
+        hikari.setJdbcUrl(config.getDbUrl());
+        hikari.setUsername(config.getDbUsername());
+        hikari.setPassword(config.getDbPassword());
+
+        hikari.setMaximumPoolSize(config.getHibernatePoolSize());
+        hikari.setMinimumIdle(Math.min(config.getPoolMinIdle(), config.getHibernatePoolSize()));
+        hikari.setConnectionTimeout(config.getPoolConnectionTimeoutMs());
+        hikari.setValidationTimeout(config.getPoolValidationTimeoutMs());
+        hikari.setIdleTimeout(config.getPoolIdleTimeoutMs());
+        hikari.setMaxLifetime(config.getPoolMaxLifetimeMs());
+        hikari.setLeakDetectionThreshold(config.getPoolLeakDetectionThresholdMs());
+        configureStatementCache(hikari, config);
+
+        // Hibernate manages transactions itself
+        hikari.setAutoCommit(false);
+        hikari.setRegisterMbeans(true);
+        hikari.setMetricsTrackerFactory(ConnectionPoolMetrics.getInstance());
+
+        dataSource = new HikariDataSource(hikari);
+        ConnectionPoolMetrics.getInstance().bind(dataSource.getHikariPoolMXBean());
+
+        if (config.isEmbeddedDatabase()) {
+            createEmbeddedSchema();
+        }
+        if (config.isSlowQueryLogEnabled()) {
+            slowQueryLog = SlowQueryLog.getInstance();
+        }
+    }
+
+    // The driver keeps the prepared statements of each connection open, so the
+    // named queries Hibernate prepares on every call are parsed once per connection
+    private static void configureStatementCache(HikariConfig hikari, ConfigManager config) {
+        int size = config.getStatementCacheSize();
+        if (size <= 0) {
+            return;
+        }
+        if (config.isEmbeddedDatabase()) {
+            hikari.addDataSourceProperty("QUERY_CACHE_SIZE", String.valueOf(size));
+        } else {
+            hikari.addDataSourceProperty("oracle.jdbc.implicitStatementCacheSize", String.valueOf(size));
+        }
+    }
+
+    // Runs before Hibernate touches the database, so the entities see the same
+    // tables, sequences and indexes as on Oracle
+    private void createEmbeddedSchema() {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:" + EMBEDDED_SCHEMA_SCRIPT + "'");
+            connection.commit();
+        } catch (SQLException e) {
+            dataSource.close();
+            throw new RuntimeException("Failed to create the embedded database schema", e);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        // Sampled per checkout: an unsampled session gets the driver's connection, with no wrapper in the way
+        return slowQueryLog != null && slowQueryLog.sample() ? TimedJdbc.wrap(connection, slowQueryLog) : connection;
+    }
+
+    @Override
+    public void closeConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return ConnectionProvider.class.equals(unwrapType)
+            || PooledConnectionProvider.class.isAssignableFrom(unwrapType)
+            || DataSource.class.isAssignableFrom(unwrapType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T unwrap(Class<T> unwrapType) {
+        if (ConnectionProvider.class.equals(unwrapType)
+                || PooledConnectionProvider.class.isAssignableFrom(unwrapType)) {
+            return (T) this;
+        }
+        if (DataSource.class.isAssignableFrom(unwrapType)) {
+            return (T) dataSource;
+        }
+        throw new UnknownUnwrapTypeException(unwrapType);
+    }
+
+    @Override
+    public void stop() {
+        if (dataSource != null) {
+            dataSource.close();
+        }
+        if (slowQueryLog != null) {
+            System.out.println(slowQueryLog);
+            SlowQueryLog.close();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.taskmanager.util;
+
+import java.time.Duration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+
+import org.ehcache.config.builders.CacheConfigurationBuilder;
+import org.ehcache.config.builders.ExpiryPolicyBuilder;
+import org.ehcache.config.builders.ResourcePoolsBuilder;
+import org.ehcache.jsr107.Eh107Configuration;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import com.taskmanager.config.ConfigManager;
+
+/**
+ * Hibernate second-level cache regions, backed by an in-process Ehcache JCache manager.
+ * Regions are created up front so their size and time-to-live come from ConfigManager.
+ */
+public class SecondLevelCache {
+    public static final String USER_REGION = "users";
+    public static final String PREFERENCE_REGION = "userPreferences";
+    public static final String PREFERENCE_QUERY_REGION = "preferenceQueries";
+
+    // Hibernate's default name for the region tracking when each table last changed
+    static final String TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    private static final String PROVIDER = "org.ehcache.jsr107.EhcacheCachingProvider";
+
+    private static CacheManager cacheManager;
+
+    private SecondLevelCache() {
+    }
+
+    static synchronized CacheManager getCacheManager(ConfigManager config) {
+        if (cacheManager == null) {
+            CacheManager manager = Caching.getCachingProvider(PROVIDER).getCacheManager();
+            long maxEntries = config.getCacheMaxEntries();
+            Duration ttl = Duration.ofSeconds(config.getCacheTtlSeconds());
+            createRegion(manager, USER_REGION, maxEntries, ttl);
+            createRegion(manager, PREFERENCE_REGION, maxEntries, ttl);
+            createRegion(manager, PREFERENCE_QUERY_REGION, maxEntries, ttl);
+            // Timestamps must outlive every cached query result, so they never expire
+            createRegion(manager, TIMESTAMPS_REGION, maxEntries, null);
+            cacheManager = manager;
+        }
+        return cacheManager;
+    }
+
+    private static void createRegion(CacheManager manager, String name, long maxEntries, Duration ttl) {
+        CacheConfigurationBuilder<Object, Object> builder = CacheConfigurationBuilder
+            .newCacheConfigurationBuilder(Object.class, Object.class, ResourcePoolsBuilder.heap(maxEntries));
+        builder = builder.withExpiry(ttl != null
+            ? ExpiryPolicyBuilder.timeToLiveExpiration(ttl)
+            : ExpiryPolicyBuilder.noExpiration());
+        manager.createCache(name, Eh107Configuration.fromEhcacheCacheConfiguration(builder.build()));
+    }
+
+    /**
+     * One line per region with hits, misses, puts and the hit ratio.
+     */
+    public static String describe(Statistics statistics) {
+        if (!statistics.isStatisticsEnabled()) {
+            return "Second-level cache statistics disabled (cache.statistics=false)";
+        }
+        StringBuilder summary = new StringBuilder("Second-level cache:");
+        for (String region : new String[] { USER_REGION, PREFERENCE_REGION, PREFERENCE_QUERY_REGION }) {
+            CacheRegionStatistics stats = statistics.getCacheRegionStatistics(region);
+            if (stats == null) {
+                continue;
+            }
+            long lookups = stats.getHitCount() + stats.getMissCount();
+            summary.append(String.format("%n  %s: hits=%d, misses=%d, puts=%d, hit ratio=%.1f%%",
+                region, stats.getHitCount(), stats.getMissCount(), stats.getPutCount(),
+                lookups == 0 ? 0.0 : 100.0 * stats.getHitCount() / lookups));
+        }
+        return summary.toString();
+    }
+
+    static synchronized void close() {
+        if (cacheManager != null) {
+            cacheManager.close();
+            cacheManager = null;
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.taskmanager.util;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.taskmanager.config.ConfigManager;
+
+/**
+ * Writes SQL statements slower than {@code db.slow_query.threshold_ms} to a
+ * rolling log file. Statements are timed at the JDBC level (TimedJdbc), so an
+ * entry has the real execution and fetch time, the number of bound parameters
+ * and the rows returned or changed. Only {@code db.slow_query.sample_rate} of
+ * the connection checkouts are timed; the others run on the plain connection.
+ *
+ * Entries are queued and written by a background thread, so a slow statement
+ * never waits for the disk. When the queue is full, entries are dropped and
+ * counted.
+ */
+public class SlowQueryLog {
+    private static final int QUEUE_CAPACITY = 1024;
+    private static final Entry STOP = new Entry(null, 0, 0, 0, 0, null, null);
+
+    private static SlowQueryLog instance;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final Path path;
+    private final long maxFileBytes;
+    private final int maxFiles;
+
+    private final BlockingQueue<Entry> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final LongAdder logged = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writerThread;
+
+    // Only used by the writer thread
+    private OutputStream writer;
+    private long fileBytes;
+
+    private SlowQueryLog() {
+        ConfigManager config = ConfigManager.getInstance();
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getSlowQueryThresholdMs());
+        this.sampleRate = config.getSlowQuerySampleRate();
+        this.path = Paths.get(config.getSlowQueryLogPath());
+        this.maxFileBytes = config.getSlowQueryMaxFileSizeKb() * 1024L;
+        this.maxFiles = Math.max(1, config.getSlowQueryMaxFiles());
+        this.writerThread = new Thread(this::writeEntries, "slow-query-log");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    public static synchronized SlowQueryLog getInstance() {
+        if (instance == null) {
+            instance = new SlowQueryLog();
+        }
+        return instance;
+    }
+
+    /**
+     * Whether the statements of the connection being checked out should be timed.
+     */
+    boolean sample() {
+        return sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Called when a timed statement has finished; logs it if it was slow.
+     * A negative row count means the driver did not report one.
+     */
+    void record(String sql, int binds, int batches, long rows, long nanos) {
+        if (nanos < thresholdNanos) {
+            return;
+        }
+        Entry entry = new Entry(LocalDateTime.now(), nanos, binds, batches, rows,
+            Thread.currentThread().getName(), sql);
+        if (queue.offer(entry)) {
+            logged.increment();
+        } else {
+            dropped.increment();
+        }
+    }
+
+    public long getLoggedCount() {
+        return logged.sum();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    private void writeEntries() {
+        try {
+            while (true) {
+                Entry entry = queue.take();
+                if (entry == STOP) {
+                    break;
+                }
+                write(entry);
+                if (queue.isEmpty()) {
+                    flush();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            closeWriter();
+        }
+    }
+
+    private void write(Entry entry) {
+        try {
+            if (writer == null) {
+                open();
+            } else if (fileBytes >= maxFileBytes) {
+                roll();
+            }
+            // Rolled by size on the disk, so count the encoded bytes rather than the characters
+            byte[] line = (entry.format() + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+            writer.write(line);
+            fileBytes += line.length;
+        } catch (IOException e) {
+            System.err.println("Failed to write the slow query log " + path + ": " + e.getMessage());
+            closeWriter();
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        fileBytes = Files.exists(path) ? Files.size(path) : 0;
+        writer = new BufferedOutputStream(Files.newOutputStream(path,
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+    }
+
+    // slow-queries.log becomes slow-queries.log.1, .1 becomes .2, and so on; the oldest is dropped
+    private void roll() throws IOException {
+        closeWriter();
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path older = rolled(i);
+            if (Files.exists(older)) {
+                Files.move(older, rolled(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 1) {
+            Files.move(path, rolled(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(path);
+        }
+        Files.deleteIfExists(rolled(maxFiles));
+        open();
+    }
+
+    private Path rolled(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+
+    private void flush() {
+        try {
+            if (writer != null) {
+                writer.flush();
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to flush the slow query log: " + e.getMessage());
+        }
+    }
+
+    private void closeWriter() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                System.err.println("Failed to close the slow query log: " + e.getMessage());
+            }
+            writer = null;
+        }
+    }
+
+    /**
+     * Writes what is queued and stops the writer thread; the next getInstance()
+     * starts a new log.
+     */
+    static synchronized void close() {
+        if (instance != null) {
+            instance.shutdown();
+            instance = null;
+        }
+    }
+
+    private void shutdown() {
+        try {
+            if (queue.offer(STOP, 1, TimeUnit.SECONDS)) {
+                writerThread.join(TimeUnit.SECONDS.toMillis(5));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Slow queries[logged=%d, dropped=%d, threshold=%dms, sample rate=%.2f, file=%s]",
+            getLoggedCount(), getDroppedCount(), TimeUnit.NANOSECONDS.toMillis(thresholdNanos), sampleRate, path);
+    }
+
+    private static final class Entry {
+        final LocalDateTime time;
+        final long nanos;
+        final int binds;
+        final int batches;
+        final long rows;
+        final String thread;
+        final String sql;
+
+        Entry(LocalDateTime time, long nanos, int binds, int batches, long rows, String thread, String sql) {
+            this.time = time;
+            this.nanos = nanos;
+            this.binds = binds;
+            this.batches = batches;
+            this.rows = rows;
+            this.thread = thread;
+            this.sql = sql;
+        }
+
+        // One line per statement: formatted SQL is collapsed to single spaces
+        String format() {
+            StringBuilder line = new StringBuilder(160 + (sql != null ? sql.length() : 0));
+            line.append(time)
+                .append(" elapsed=").append(String.format("%.3f", nanos / 1_000_000.0)).append("ms")
+                .append(" rows=").append(rows >= 0 ? String.valueOf(rows) : "?")
+                .append(" binds=").append(binds);
+            if (batches > 0) {
+                line.append(" batch=").append(batches);
+            }
+            line.append(" thread=").append(thread)
+                .append(" sql=").append(sql != null ? sql.trim().replaceAll("\\s+", " ") : "?");
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.taskmanager.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * JDBC wrappers that time statements for the SlowQueryLog. Only the sampled
+ * connections are wrapped, and a wrapped connection hands out timed
+ * statements. A timed statement counts the parameters bound and reports each execution
+ * with its elapsed time and row count. For a query, that is the execute
+ * call plus the time spent reading the result set, reported once the rows
+ * have been read or the result set is closed.
+ */
+final class TimedJdbc {
+
+    private TimedJdbc() {
+    }
+
+    static Connection wrap(Connection connection, SlowQueryLog log) {
+        return proxy(Connection.class, new ConnectionHandler(connection, log));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(TimedJdbc.class.getClassLoader(), new Class<?>[] { type }, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Compares proxies by identity, so Hibernate can keep them in maps and sets.
+     */
+    private abstract static class Handler implements InvocationHandler {
+
+        @Override
+        public final Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        break;
+                }
+            }
+            return handle(method, args);
+        }
+
+        abstract Object handle(Method method, Object[] args) throws Throwable;
+    }
+
+    private static final class ConnectionHandler extends Handler {
+        private final Connection connection;
+        private final SlowQueryLog log;
+
+        ConnectionHandler(Connection connection, SlowQueryLog log) {
+            this.connection = connection;
+            this.log = log;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            Object result = TimedJdbc.invoke(connection, method, args);
+            if (!(result instanceof Statement)) {
+                return result;
+            }
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+            StatementHandler handler = new StatementHandler((Statement) result, sql, log);
+            if (result instanceof CallableStatement) {
+                return proxy(CallableStatement.class, handler);
+            }
+            if (result instanceof PreparedStatement) {
+                return proxy(PreparedStatement.class, handler);
+            }
+            return proxy(Statement.class, handler);
+        }
+    }
+
+    private static final class StatementHandler extends Handler {
+        private final Statement statement;
+        private final String preparedSql;
+        private final SlowQueryLog log;
+
+        // Parameters bound and rows batched since the last execution
+        private int binds;
+        private int batches;
+        private String batchSql;
+
+        StatementHandler(Statement statement, String preparedSql, SlowQueryLog log) {
+            this.statement = statement;
+            this.preparedSql = preparedSql;
+            this.log = log;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (!name.startsWith("execute")) {
+                // setInt(1, x), setString("name", x), ...; setFetchSize(n) and friends take one argument
+                if (name.startsWith("set") && args != null && args.length >= 2) {
+                    binds++;
+                } else if (name.equals("clearParameters")) {
+                    binds = 0;
+                } else if (name.equals("addBatch")) {
+                    batches++;
+                    if (batchSql == null && args != null && args.length == 1) {
+                        batchSql = (String) args[0];
+                    }
+                } else if (name.equals("clearBatch")) {
+                    batches = 0;
+                    batchSql = null;
+                }
+                return TimedJdbc.invoke(statement, method, args);
+            }
+
+            String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0]
+                : preparedSql != null ? preparedSql : batchSql;
+            int boundParameters = binds;
+            int batched = batches;
+            binds = 0;
+            batches = 0;
+            batchSql = null;
+
+            long start = System.nanoTime();
+            Object result = TimedJdbc.invoke(statement, method, args);
+            long elapsed = System.nanoTime() - start;
+            if (result instanceof ResultSet) {
+                return proxy(ResultSet.class, new ResultSetHandler((ResultSet) result, sql, boundParameters, elapsed, log));
+            }
+            log.record(sql, boundParameters, batched, rows(result), elapsed);
+            return result;
+        }
+
+        // executeUpdate returns the rows changed, executeBatch one count per statement
+        private static long rows(Object result) {
+            if (result instanceof Integer || result instanceof Long) {
+                return ((Number) result).longValue();
+            }
+            long total = 0;
+            if (result instanceof int[]) {
+                for (int count : (int[]) result) {
+                    if (count < 0) {
+                        return -1; // Statement.SUCCESS_NO_INFO
+                    }
+                    total += count;
+                }
+                return total;
+            }
+            if (result instanceof long[]) {
+                for (long count : (long[]) result) {
+                    if (count < 0) {
+                        return -1;
+                    }
+                    total += count;
+                }
+                return total;
+            }
+            return -1; // execute() only says whether there is a result set
+        }
+    }
+
+    private static final class ResultSetHandler extends Handler {
+        private final ResultSet resultSet;
+        private final String sql;
+        private final int binds;
+        private final SlowQueryLog log;
+
+        private long elapsed;
+        private long rows;
+        private boolean reported;
+
+        ResultSetHandler(ResultSet resultSet, String sql, int binds, long executeNanos, SlowQueryLog log) {
+            this.resultSet = resultSet;
+            this.sql = sql;
+            this.binds = binds;
+            this.elapsed = executeNanos;
+            this.log = log;
+        }
+
+        @Override
+        Object handle(Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.equals("next")) {
+                long start = System.nanoTime();
+                Object more = TimedJdbc.invoke(resultSet, method, args);
+                elapsed += System.nanoTime() - start;
+                if (Boolean.TRUE.equals(more)) {
+                    rows++;
+                } else {
+                    report();
+                }
+                return more;
+            }
+            if (name.equals("close")) {
+                report();
+            }
+            return TimedJdbc.invoke(resultSet, method, args);
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                log.record(sql, binds, 0, rows, elapsed);
+            }
+        }
+    }
+}
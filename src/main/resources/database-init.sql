@@ -2,9 +2,10 @@
 -- Run this script in Oracle Database before starting the application
 
 -- Create sequences for auto-incrementing IDs
-CREATE SEQUENCE USER_SEQ START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE TASK_SEQ START WITH 1 INCREMENT BY 1;
-CREATE SEQUENCE PREFERENCE_SEQ START WITH 1 INCREMENT BY 1;
+-- INCREMENT BY matches the entities' allocationSize (pooled-lo optimizer)
+CREATE SEQUENCE USER_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE TASK_SEQ START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE PREFERENCE_SEQ START WITH 1 INCREMENT BY 50;
 
 -- Grant necessary permissions (if needed)
 -- GRANT CREATE SESSION TO system;
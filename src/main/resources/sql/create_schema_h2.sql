@@ -0,0 +1,66 @@
+-- Schema for the embedded H2 profiles (db.profile = h2-mem or h2-file)
+-- Mirrors create_schema_oracle.sql: the same tables, sequences and indexes, so the
+-- entity mappings and query plans match the Oracle deployment.
+-- The application runs this script when the connection pool starts; every
+-- statement is idempotent so file-backed databases can be reopened.
+
+-- Sequences used by JPA annotations (INCREMENT BY = allocationSize, see the Oracle script)
+CREATE SEQUENCE IF NOT EXISTS TASK_SEQ START WITH 1 INCREMENT BY 50 CACHE 20;
+CREATE SEQUENCE IF NOT EXISTS USER_SEQ START WITH 1 INCREMENT BY 50 CACHE 20;
+CREATE SEQUENCE IF NOT EXISTS PREFERENCE_SEQ START WITH 1 INCREMENT BY 50 CACHE 20;
+
+-- Users table
+CREATE TABLE IF NOT EXISTS users (
+    id INTEGER PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    display_name VARCHAR(255),
+    created_at TIMESTAMP,
+    last_login TIMESTAMP,
+    CONSTRAINT uq_users_email UNIQUE (email)
+);
+
+-- Tasks table (completed is NUMBER(1) with a 0/1 check in Oracle; BOOLEAN here)
+CREATE TABLE IF NOT EXISTS tasks (
+    id INTEGER PRIMARY KEY,
+    title VARCHAR(400) NOT NULL,
+    description CLOB,
+    priority VARCHAR(50),
+    deadline DATE,
+    completed BOOLEAN DEFAULT FALSE NOT NULL,
+    created_at TIMESTAMP,
+    updated_at TIMESTAMP,
+    edited_at TIMESTAMP,
+    user_id INTEGER NOT NULL,
+    CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+-- Added after the first release; file-backed databases created before it get the column here
+ALTER TABLE tasks ADD COLUMN IF NOT EXISTS edited_at TIMESTAMP;
+
+CREATE INDEX IF NOT EXISTS idx_tasks_user_created ON tasks(user_id, created_at, id);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_status_prio ON tasks(user_id, completed, priority, created_at);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_deadline ON tasks(user_id, deadline, created_at);
+CREATE INDEX IF NOT EXISTS idx_tasks_user_updated ON tasks(user_id, updated_at);
+
+-- Deleted tasks, read by delta refreshes
+CREATE TABLE IF NOT EXISTS task_tombstones (
+    task_id INTEGER PRIMARY KEY,
+    user_id INTEGER NOT NULL,
+    deleted_at TIMESTAMP NOT NULL,
+    CONSTRAINT fk_tombstones_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_tombstones_user_deleted ON task_tombstones(user_id, deleted_at);
+
+-- User preferences table
+CREATE TABLE IF NOT EXISTS user_preferences (
+    id INTEGER PRIMARY KEY,
+    preference_key VARCHAR(255) NOT NULL,
+    preference_value VARCHAR(2000),
+    created_at TIMESTAMP,
+    user_id INTEGER NOT NULL,
+    CONSTRAINT fk_prefs_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_prefs_user_id ON user_preferences(user_id);
@@ -18,9 +18,12 @@
 -- CONNECT task_app/ChangeMeStrongPwd1@<db_connect_string>
 
 -- 3) Create sequences used by JPA annotations
-CREATE SEQUENCE TASK_SEQ START WITH 1 INCREMENT BY 1 NOCACHE NOCYCLE;
-CREATE SEQUENCE USER_SEQ START WITH 1 INCREMENT BY 1 NOCACHE NOCYCLE;
-CREATE SEQUENCE PREFERENCE_SEQ START WITH 1 INCREMENT BY 1 NOCACHE NOCYCLE;
+-- INCREMENT BY must equal the entities' allocationSize (50): Hibernate's pooled-lo
+-- optimizer hands out 50 ids per NEXTVAL call.
+-- Existing databases: ALTER SEQUENCE TASK_SEQ INCREMENT BY 50; (same for USER_SEQ, PREFERENCE_SEQ)
+CREATE SEQUENCE TASK_SEQ START WITH 1 INCREMENT BY 50 CACHE 20 NOCYCLE;
+CREATE SEQUENCE USER_SEQ START WITH 1 INCREMENT BY 50 CACHE 20 NOCYCLE;
+CREATE SEQUENCE PREFERENCE_SEQ START WITH 1 INCREMENT BY 50 CACHE 20 NOCYCLE;
 
 -- 4) Create tables
 
@@ -47,14 +50,39 @@ CREATE TABLE tasks (
     completed NUMBER(1) DEFAULT 0 NOT NULL,
     created_at TIMESTAMP,
     updated_at TIMESTAMP,
+    edited_at TIMESTAMP,
     user_id NUMBER(10) NOT NULL
 );
 
+-- updated_at is when a change was stored, edited_at when it was made (they differ for
+-- changes synced from local-first mode). Existing databases: ALTER TABLE tasks ADD edited_at TIMESTAMP;
+
 -- Foreign key to users
 ALTER TABLE tasks ADD CONSTRAINT fk_tasks_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
 
--- Index for tasks.user_id
-CREATE INDEX idx_tasks_user_id ON tasks(user_id);
+-- Index for tasks.user_id; the dashboard reads pages by seeking on (created_at, id)
+-- within a user, so the key also covers the keyset ordering
+CREATE INDEX idx_tasks_user_created ON tasks(user_id, created_at, id);
+
+-- Composite indexes for combined dashboard filters (status + priority, deadline range),
+-- each ordered by created_at so one range scan returns rows in display order
+CREATE INDEX idx_tasks_user_status_prio ON tasks(user_id, completed, priority, created_at);
+CREATE INDEX idx_tasks_user_deadline ON tasks(user_id, deadline, created_at);
+
+-- Delta refreshes read the rows changed since a point in time
+-- Existing databases: run this index and the task_tombstones statements below
+CREATE INDEX idx_tasks_user_updated ON tasks(user_id, updated_at);
+
+-- Deleted tasks, read by delta refreshes; rows older than refresh.tombstone_retention_days are pruned
+CREATE TABLE task_tombstones (
+    task_id NUMBER(10) PRIMARY KEY,
+    user_id NUMBER(10) NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+
+ALTER TABLE task_tombstones ADD CONSTRAINT fk_tombstones_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+
+CREATE INDEX idx_tombstones_user_deleted ON task_tombstones(user_id, deleted_at);
 
 -- User preferences table
 CREATE TABLE user_preferences (
@@ -111,7 +139,7 @@ ALTER TABLE tasks ADD CONSTRAINT chk_tasks_completed CHECK (completed IN (0,1));
 
 -- 7) Verification queries (run as the application user)
 -- List tables
--- SELECT table_name FROM user_tables WHERE table_name IN ('USERS','TASKS','USER_PREFERENCES');
+-- SELECT table_name FROM user_tables WHERE table_name IN ('USERS','TASKS','USER_PREFERENCES','TASK_TOMBSTONES');
 
 -- Check sequences
 -- SELECT sequence_name, last_number FROM user_sequences WHERE sequence_name IN ('TASK_SEQ','USER_SEQ','PREFERENCE_SEQ');
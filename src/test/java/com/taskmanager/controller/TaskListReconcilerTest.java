@@ -0,0 +1,179 @@
+package com.taskmanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.entity.Task;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+class TaskListReconcilerTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private ObservableList<Task> tasks;
+    private TaskListReconciler reconciler;
+    private final AtomicInteger events = new AtomicInteger();
+
+    @BeforeEach
+    void setUp() {
+        tasks = FXCollections.observableArrayList();
+        reconciler = new TaskListReconciler(tasks);
+        tasks.addListener((ListChangeListener<Task>) change -> events.incrementAndGet());
+    }
+
+    private static Task task(int id) {
+        return task(id, "Task " + id);
+    }
+
+    private static Task task(int id, String title) {
+        Task task = new Task(title, "", "Medium", null, false, null);
+        task.setId(id);
+        task.setCreatedAt(CREATED_AT);
+        task.setUpdatedAt(CREATED_AT);
+        return task;
+    }
+
+    private static List<Task> tasks(int... ids) {
+        List<Task> list = new ArrayList<>();
+        for (int id : ids) {
+            list.add(task(id));
+        }
+        return list;
+    }
+
+    private List<Integer> ids() {
+        return tasks.stream().map(Task::getId).toList();
+    }
+
+    private int reconcile(List<Task> result) {
+        events.set(0);
+        int changes = reconciler.reconcile(result);
+        assertEquals(changes, events.get(), "one list change per reported change");
+        assertEquals(result.stream().map(Task::getId).toList(), ids());
+        return changes;
+    }
+
+    @Test
+    void unchangedRowsKeepTheirInstances() {
+        tasks.setAll(tasks(1, 2, 3));
+        List<Task> before = new ArrayList<>(tasks);
+
+        assertEquals(0, reconcile(tasks(1, 2, 3)));
+        for (int i = 0; i < before.size(); i++) {
+            assertSame(before.get(i), tasks.get(i));
+        }
+    }
+
+    @Test
+    void changedRowIsReplacedInPlace() {
+        tasks.setAll(tasks(1, 2, 3));
+        Task first = tasks.get(0);
+        Task renamed = task(2, "Renamed");
+
+        assertEquals(1, reconcile(List.of(task(1), renamed, task(3))));
+        assertSame(first, tasks.get(0));
+        assertSame(renamed, tasks.get(1));
+    }
+
+    @Test
+    void goneRowsAreRemovedInOneChange() {
+        tasks.setAll(tasks(1, 2, 3, 4, 5));
+
+        assertEquals(1, reconcile(tasks(1, 3, 5)));
+    }
+
+    @Test
+    void newRowsAreInsertedInRuns() {
+        tasks.setAll(tasks(1, 5));
+
+        assertEquals(1, reconcile(tasks(1, 2, 3, 4, 5)));
+        assertEquals(2, reconcile(tasks(0, 1, 2, 3, 4, 5, 6)));
+    }
+
+    @Test
+    void movedRowKeepsItsInstance() {
+        tasks.setAll(tasks(1, 2, 3));
+        Task third = tasks.get(2);
+
+        assertEquals(2, reconcile(tasks(3, 1, 2)));
+        assertSame(third, tasks.get(0));
+    }
+
+    @Test
+    void mostlyReorderedResultIsSetAtOnce() {
+        int[] ascending = IntStream.rangeClosed(1, 100).toArray();
+        tasks.setAll(tasks(ascending));
+        List<Task> descending = tasks(ascending);
+        Collections.reverse(descending);
+
+        reconcile(descending);
+        assertEquals(100, tasks.get(0).getId());
+    }
+
+    @Test
+    void repeatedIdsAreSetAtOnce() {
+        tasks.setAll(tasks(1, 2));
+
+        assertEquals(1, reconcile(List.of(task(1), task(1), task(2))));
+    }
+
+    @Test
+    void repeatedRowsInTheListAreDropped() {
+        tasks.setAll(tasks(3, 1, 2, 1));
+
+        reconcile(tasks(1, 2));
+    }
+
+    @Test
+    void emptyListsAreSetAtOnce() {
+        assertEquals(0, reconcile(List.of()));
+        assertEquals(1, reconcile(tasks(1, 2)));
+        assertEquals(1, reconcile(List.of()));
+    }
+
+    @Test
+    void mixedChangesEndInTheResultOrder() {
+        tasks.setAll(tasks(1, 2, 3, 4, 5, 6));
+
+        reconcile(List.of(task(7), task(1), task(3, "Changed"), task(6), task(5), task(8)));
+        assertEquals("Changed", tasks.get(2).getTitle());
+    }
+
+    @Test
+    void lookupsFollowEditsMadeOutsideTheReconciler() {
+        tasks.setAll(tasks(1, 2, 3, 4));
+        assertEquals(3, reconciler.indexOf(4));
+
+        tasks.add(0, task(0));
+        Task third = tasks.get(3);
+        assertSame(third, reconciler.remove(3));
+        assertEquals(List.of(0, 1, 2, 4), ids());
+        assertEquals(3, reconciler.indexOf(4));
+        assertNull(reconciler.remove(3));
+        assertEquals(-1, reconciler.indexOf(3));
+    }
+
+    @Test
+    void lookupsFollowIdsChangedInPlace() {
+        tasks.setAll(List.of(task(-1, "Task 1"), task(2)));
+        assertEquals(1, reconciler.indexOf(2));
+
+        tasks.get(0).setId(1);
+        assertEquals(0, reconciler.indexOf(1));
+        assertEquals(-1, reconciler.indexOf(-1));
+        assertEquals(0, reconcile(tasks(1, 2)));
+    }
+}
@@ -0,0 +1,122 @@
+package com.taskmanager.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.entity.Task;
+import com.taskmanager.service.TaskStats;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+class TaskStatsAggregatorTest {
+    private static final LocalDate YESTERDAY = LocalDate.now().minusDays(1);
+    private static final LocalDate TOMORROW = LocalDate.now().plusDays(1);
+
+    private ObservableList<Task> tasks;
+    private TaskStatsAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        tasks = FXCollections.observableArrayList();
+        aggregator = new TaskStatsAggregator();
+        tasks.addListener(aggregator);
+    }
+
+    private static Task task(String priority, LocalDate deadline, boolean completed) {
+        return new Task("Task", null, priority, deadline, completed, null);
+    }
+
+    private void assertStats(int total, int completed, int highPriority, int overdue) {
+        TaskStats stats = aggregator.snapshot();
+        assertEquals(total, stats.getTotal(), "total");
+        assertEquals(completed, stats.getCompleted(), "completed");
+        assertEquals(total - completed, stats.getPending(), "pending");
+        assertEquals(highPriority, stats.getHighPriority(), "high priority");
+        assertEquals(overdue, stats.getOverdue(), "overdue");
+    }
+
+    @Test
+    void countsAddedTasks() {
+        tasks.addAll(
+            task("Low", null, false),
+            task("High", TOMORROW, false),
+            task("Medium", YESTERDAY, false),
+            task("High", YESTERDAY, false));
+
+        assertStats(4, 0, 2, 2);
+    }
+
+    @Test
+    void completedTasksAreNeitherHighPriorityNorOverdue() {
+        tasks.add(task("High", YESTERDAY, true));
+
+        assertStats(1, 1, 0, 0);
+    }
+
+    @Test
+    void removedTasksAreSubtracted() {
+        Task overdue = task("High", YESTERDAY, false);
+        tasks.addAll(overdue, task("Low", null, true));
+
+        tasks.remove(overdue);
+        assertStats(1, 1, 0, 0);
+
+        tasks.clear();
+        assertStats(0, 0, 0, 0);
+    }
+
+    @Test
+    void replacedListIsRecounted() {
+        tasks.addAll(task("High", null, false), task("High", null, false));
+
+        tasks.setAll(task("Low", YESTERDAY, false));
+        assertStats(1, 0, 0, 1);
+
+        tasks.set(0, task("Low", null, true));
+        assertStats(1, 1, 0, 0);
+    }
+
+    @Test
+    void refreshRecountsATaskEditedInPlace() {
+        Task task = task("High", YESTERDAY, false);
+        tasks.add(task);
+
+        task.setCompleted(true);
+        assertStats(1, 0, 1, 1); // not seen until refreshed
+        aggregator.refresh(task);
+        assertStats(1, 1, 0, 0);
+
+        task.setCompleted(false);
+        task.setPriority("Low");
+        aggregator.refresh(task);
+        assertStats(1, 0, 0, 1);
+    }
+
+    @Test
+    void refreshIgnoresTasksNotInTheList() {
+        aggregator.refresh(task("High", null, false));
+
+        assertStats(0, 0, 0, 0);
+    }
+
+    @Test
+    void sameInstanceInTheListTwiceCountsOnce() {
+        Task task = task("High", null, false);
+        tasks.addAll(task, task);
+
+        assertStats(1, 0, 1, 0);
+    }
+
+    @Test
+    void sortingChangesNothing() {
+        tasks.addAll(task("Low", null, true), task("High", YESTERDAY, false));
+
+        FXCollections.sort(tasks, (a, b) -> a.getPriority().compareTo(b.getPriority()));
+        assertStats(2, 1, 1, 1);
+    }
+}
@@ -0,0 +1,81 @@
+package com.taskmanager.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+class TaskTest {
+
+    private static Task task() {
+        return new Task("Title", "Description", "Low", LocalDate.of(2024, 5, 1), false, null);
+    }
+
+    @Test
+    void newTaskIsClean() {
+        assertFalse(task().isDirty());
+        assertFalse(Task.fromSummary(1, "Title", "Desc", false, "Low", null, false, null, null).isDirty());
+    }
+
+    @Test
+    void settersTrackOnlyRealChanges() {
+        Task task = task();
+        task.setTitle("Title");
+        task.setPriority("Low");
+        task.setCompleted(false);
+        assertFalse(task.isDirty());
+
+        task.setTitle("Other");
+        task.setDeadline(null);
+        task.setCompleted(true);
+        assertEquals(EnumSet.of(Task.Field.TITLE, Task.Field.DEADLINE, Task.Field.COMPLETED), task.takeDirtyFields());
+    }
+
+    @Test
+    void takeDirtyFieldsMarksThemClean() {
+        Task task = task();
+        task.setDescription("Changed");
+
+        assertEquals(Set.of(Task.Field.DESCRIPTION), task.takeDirtyFields());
+        assertFalse(task.isDirty());
+        assertTrue(task.takeDirtyFields().isEmpty());
+    }
+
+    @Test
+    void restoredFieldsJoinLaterChanges() {
+        Task task = task();
+        task.setTitle("Changed");
+        Set<Task.Field> saving = task.takeDirtyFields();
+        task.setPriority("High");
+
+        task.restoreDirtyFields(saving);
+
+        assertEquals(EnumSet.of(Task.Field.TITLE, Task.Field.PRIORITY), task.takeDirtyFields());
+    }
+
+    @Test
+    void markCleanClearsOneField() {
+        Task task = task();
+        task.setCompleted(true);
+        task.setTitle("Changed");
+
+        task.markClean(Task.Field.COMPLETED);
+
+        assertEquals(Set.of(Task.Field.TITLE), task.takeDirtyFields());
+    }
+
+    @Test
+    void loadedDescriptionIsNotAChange() {
+        Task task = Task.fromSummary(1, "Title", "Desc", false, "Low", null, false, null, null);
+
+        task.setLoadedDescription("Description in full");
+
+        assertTrue(task.isDescriptionLoaded());
+        assertFalse(task.isDirty());
+    }
+}
@@ -0,0 +1,197 @@
+package com.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.taskmanager.entity.Task;
+
+class TaskJournalTest {
+    private static final int WRITE_OFFSET_POSITION = 12;
+
+    @TempDir
+    Path dir;
+
+    private Path journalPath() {
+        return dir.resolve("journal").resolve("tasks.journal");
+    }
+
+    private static TaskMutation update(int taskId, String title) {
+        Task task = new Task(title, null, "Low", null, false, null);
+        task.setId(taskId);
+        return TaskMutation.updated(task, 1, Set.of(Task.Field.TITLE));
+    }
+
+    private static List<Integer> taskIds(List<TaskMutation> mutations) {
+        return mutations.stream().map(TaskMutation::getTaskId).toList();
+    }
+
+    @Test
+    void readsPendingRecordsInOrder() {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            journal.append(update(1, "a"));
+            journal.append(TaskMutation.deleted(2, 1));
+            journal.append(update(3, "c"));
+
+            assertEquals(3, journal.getPendingCount());
+            assertEquals(List.of(1, 2, 3), taskIds(journal.readAllPending()));
+            assertEquals(List.of(1, 2), taskIds(journal.readPending(2).getMutations()));
+        }
+    }
+
+    @Test
+    void acknowledgedRecordsAreNotReadAgain() {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            for (int id = 1; id <= 5; id++) {
+                journal.append(update(id, "t" + id));
+            }
+
+            journal.acknowledge(journal.readPending(2));
+            assertEquals(3, journal.getPendingCount());
+            assertEquals(List.of(3, 4, 5), taskIds(journal.readAllPending()));
+
+            journal.acknowledge(journal.readPending(10));
+            assertEquals(0, journal.getPendingCount());
+            assertTrue(journal.readPending(10).isEmpty());
+
+            // Starts over at the beginning of the file
+            journal.append(update(6, "t6"));
+            assertEquals(List.of(6), taskIds(journal.readAllPending()));
+        }
+    }
+
+    @Test
+    void recordsAppendedDuringASyncStayPending() {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            journal.append(update(1, "a"));
+            TaskJournal.Batch batch = journal.readPending(10);
+            journal.append(update(2, "b"));
+
+            journal.acknowledge(batch);
+
+            assertEquals(1, journal.getPendingCount());
+            assertEquals(List.of(2), taskIds(journal.readAllPending()));
+        }
+    }
+
+    @Test
+    void unacknowledgedRecordsSurviveAReopen() {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            journal.append(update(1, "a"));
+            journal.append(update(2, "b"));
+            journal.append(update(3, "c"));
+            journal.acknowledge(journal.readPending(1));
+        }
+
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            assertEquals(2, journal.getPendingCount());
+            List<TaskMutation> pending = journal.readAllPending();
+            assertEquals(List.of(2, 3), taskIds(pending));
+            assertEquals(TaskMutation.Type.UPDATE, pending.get(0).getType());
+            assertEquals(Set.of(Task.Field.TITLE), pending.get(0).getFields());
+        }
+    }
+
+    @Test
+    void bookkeepingIsNotCountedAsPending() {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            journal.append(update(-1, "new"));
+            journal.append(TaskMutation.idReserved(-1, 100));
+            journal.append(TaskMutation.idAssigned(-1, 100));
+
+            assertEquals(1, journal.getPendingCount());
+            assertEquals(3, journal.readAllPending().size());
+        }
+
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            assertEquals(1, journal.getPendingCount());
+
+            journal.acknowledge(journal.readPending(10));
+            assertEquals(0, journal.getPendingCount());
+        }
+    }
+
+    @Test
+    void damagedTailIsDroppedOnOpen() throws IOException {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            journal.append(update(1, "a"));
+            journal.append(update(2, "b"));
+            journal.append(update(3, "c"));
+        }
+        corruptLastByte(journalPath());
+
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            assertEquals(2, journal.getPendingCount());
+            assertEquals(List.of(1, 2), taskIds(journal.readAllPending()));
+
+            // New records go where the damaged one was
+            journal.append(update(4, "d"));
+            assertEquals(List.of(1, 2, 4), taskIds(journal.readAllPending()));
+        }
+    }
+
+    @Test
+    void tornRecordIsDroppedOnOpen() throws IOException {
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            journal.append(update(1, "a"));
+            journal.append(update(2, "b"));
+        }
+        // The header claims more than was written: the process died mid-record
+        try (FileChannel channel = FileChannel.open(journalPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int writeOffset = readInt(channel, WRITE_OFFSET_POSITION);
+            writeInt(channel, WRITE_OFFSET_POSITION, writeOffset + 20);
+        }
+
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            assertEquals(2, journal.getPendingCount());
+            assertEquals(List.of(1, 2), taskIds(journal.readAllPending()));
+        }
+    }
+
+    @Test
+    void growsPastTheInitialMapping() {
+        String title = "x".repeat(10_000);
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            for (int id = 1; id <= 300; id++) {
+                journal.append(update(id, title));
+            }
+        }
+
+        try (TaskJournal journal = TaskJournal.open(journalPath())) {
+            List<TaskMutation> pending = journal.readAllPending();
+            assertEquals(300, pending.size());
+            assertEquals(300, pending.get(299).getTaskId());
+            assertEquals(title, pending.get(299).toTask(null).getTitle());
+        }
+    }
+
+    private static void corruptLastByte(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            int last = readInt(channel, WRITE_OFFSET_POSITION) - 1;
+            ByteBuffer b = ByteBuffer.allocate(1);
+            channel.read(b, last);
+            b.put(0, (byte) (b.get(0) ^ 0xFF)).rewind();
+            channel.write(b, last);
+        }
+    }
+
+    private static int readInt(FileChannel channel, long position) throws IOException {
+        ByteBuffer b = ByteBuffer.allocate(4);
+        channel.read(b, position);
+        return b.getInt(0);
+    }
+
+    private static void writeInt(FileChannel channel, long position, int value) throws IOException {
+        channel.write(ByteBuffer.allocate(4).putInt(0, value), position);
+    }
+}
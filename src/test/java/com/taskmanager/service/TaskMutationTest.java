@@ -0,0 +1,140 @@
+package com.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.entity.Task;
+
+class TaskMutationTest {
+    private static final LocalDateTime MADE_AT = LocalDateTime.of(2024, 3, 1, 9, 30, 15, 123_456_789);
+
+    private static Task task(int id) {
+        Task task = new Task("Write report", "Quarterly numbers – draft ✓", "High",
+            LocalDate.of(2024, 3, 15), false, null);
+        task.setId(id);
+        task.setCreatedAt(MADE_AT);
+        return task;
+    }
+
+    private static TaskMutation roundTrip(TaskMutation mutation) throws IOException {
+        return TaskMutation.decode(mutation.encode());
+    }
+
+    @Test
+    void createSurvivesEncoding() throws IOException {
+        TaskMutation decoded = roundTrip(TaskMutation.created(task(-3), 7));
+
+        assertEquals(TaskMutation.Type.CREATE, decoded.getType());
+        assertEquals(-3, decoded.getTaskId());
+        assertEquals(7, decoded.getUserId());
+        assertEquals(MADE_AT, decoded.getMadeAt());
+        assertEquals(EnumSet.allOf(Task.Field.class), decoded.getFields());
+        assertTrue(decoded.isTemporary());
+        assertFalse(decoded.isBookkeeping());
+
+        Task copy = decoded.toTask(null);
+        assertEquals("Write report", copy.getTitle());
+        assertEquals("Quarterly numbers – draft ✓", copy.getDescription());
+        assertEquals("High", copy.getPriority());
+        assertEquals(LocalDate.of(2024, 3, 15), copy.getDeadline());
+        assertFalse(copy.isCompleted());
+        assertEquals(MADE_AT, copy.getCreatedAt());
+    }
+
+    @Test
+    void nullValuesSurviveEncoding() throws IOException {
+        Task task = new Task("Call back", null, null, null, true, null);
+        task.setId(12);
+
+        Task copy = roundTrip(TaskMutation.created(task, 1)).toTask(null);
+
+        assertNull(copy.getDescription());
+        assertNull(copy.getPriority());
+        assertNull(copy.getDeadline());
+        assertTrue(copy.isCompleted());
+    }
+
+    @Test
+    void updateKeepsOnlyTheChangedFields() throws IOException {
+        Task task = task(40);
+        task.setCompleted(true);
+        task.setPriority("Low");
+
+        TaskMutation decoded = roundTrip(TaskMutation.updated(task, 7, task.takeDirtyFields()));
+
+        assertEquals(TaskMutation.Type.UPDATE, decoded.getType());
+        assertEquals(EnumSet.of(Task.Field.PRIORITY, Task.Field.COMPLETED), decoded.getFields());
+
+        Task target = task(40);
+        target.setTitle("Renamed elsewhere");
+        target.takeDirtyFields();
+        decoded.applyTo(target);
+        assertEquals("Renamed elsewhere", target.getTitle());
+        assertEquals("Low", target.getPriority());
+        assertTrue(target.isCompleted());
+        assertEquals(EnumSet.of(Task.Field.PRIORITY, Task.Field.COMPLETED), target.takeDirtyFields());
+    }
+
+    @Test
+    void deleteSurvivesEncoding() throws IOException {
+        TaskMutation decoded = roundTrip(TaskMutation.deleted(55, 7));
+
+        assertEquals(TaskMutation.Type.DELETE, decoded.getType());
+        assertEquals(55, decoded.getTaskId());
+        assertEquals(7, decoded.getUserId());
+        assertTrue(decoded.getFields().isEmpty());
+    }
+
+    @Test
+    void idRecordsAreBookkeeping() throws IOException {
+        TaskMutation assigned = roundTrip(TaskMutation.idAssigned(-2, 301));
+        TaskMutation reserved = roundTrip(TaskMutation.idReserved(-4, 302));
+
+        assertEquals(TaskMutation.Type.ID_ASSIGNED, assigned.getType());
+        assertEquals(-2, assigned.getTaskId());
+        assertEquals(301, assigned.getStoredId());
+        assertTrue(assigned.isBookkeeping());
+
+        assertEquals(TaskMutation.Type.ID_RESERVED, reserved.getType());
+        assertEquals(-4, reserved.getTaskId());
+        assertEquals(302, reserved.getStoredId());
+        assertTrue(reserved.isBookkeeping());
+    }
+
+    @Test
+    void truncatedRecordIsRejected() {
+        byte[] record = TaskMutation.created(task(-1), 7).encode();
+
+        assertThrows(IOException.class, () -> TaskMutation.decode(Arrays.copyOf(record, record.length - 3)));
+    }
+
+    @Test
+    void laterUpdateOverridesOnlyItsFields() {
+        Task task = task(-1);
+        TaskMutation create = TaskMutation.created(task, 7);
+        task.setTitle("Write final report");
+        task.setDeadline(null);
+        Set<Task.Field> changed = task.takeDirtyFields();
+
+        TaskMutation folded = create.followedBy(TaskMutation.updated(task, 7, changed));
+
+        assertEquals(TaskMutation.Type.CREATE, folded.getType());
+        assertEquals(MADE_AT, folded.getMadeAt());
+        Task copy = folded.toTask(null);
+        assertEquals("Write final report", copy.getTitle());
+        assertNull(copy.getDeadline());
+        assertEquals("High", copy.getPriority());
+    }
+}
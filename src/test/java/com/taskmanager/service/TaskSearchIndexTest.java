@@ -0,0 +1,151 @@
+package com.taskmanager.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.taskmanager.entity.Task;
+
+class TaskSearchIndexTest {
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private TaskSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TaskSearchIndex();
+    }
+
+    private static Task task(int id, String title, String description) {
+        Task task = new Task(title, description, "Medium", null, false, null);
+        task.setId(id);
+        task.setCreatedAt(CREATED_AT.plusMinutes(id));
+        return task;
+    }
+
+    private List<Integer> search(String query) {
+        return index.search(query).stream().map(Task::getId).toList();
+    }
+
+    @Test
+    void tokenizeSplitsOnNonWordCharactersAndLowercases() {
+        assertEquals(List.of("fix", "bug", "42", "in", "ui", "layer"),
+            TaskSearchIndex.tokenize("Fix bug #42 in UI-layer!"));
+        assertEquals(List.of("café", "naïve"), TaskSearchIndex.tokenize("  Café, naïve. "));
+        assertTrue(TaskSearchIndex.tokenize(null).isEmpty());
+        assertTrue(TaskSearchIndex.tokenize(" -- ").isEmpty());
+    }
+
+    @Test
+    void termMatchesTokensContainingIt() {
+        index.rebuild(List.of(
+            task(1, "Deploy release", null),
+            task(2, "Department meeting", null),
+            task(3, "Write docs", "redeploy later")));
+
+        assertEquals(List.of(2, 1, 3), search("dep"));
+        assertEquals(List.of(1, 3), search("DEPLOY"));
+        assertEquals(List.of(1, 3), search("ploy"));
+        assertEquals(List.of(2), search("tmen"));
+        assertEquals(List.of(), search("deploys"));
+    }
+
+    @Test
+    void termsDoNotMatchAcrossTokens() {
+        index.add(task(1, "Release notes", null));
+
+        assertEquals(List.of(), search("senot"));
+        assertEquals(List.of(1), search("ase not"));
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        index.rebuild(List.of(
+            task(1, "Deploy release", "after the review"),
+            task(2, "Deploy hotfix", null),
+            task(3, "Review release notes", null)));
+
+        assertEquals(List.of(1), search("deploy rev"));
+        assertEquals(List.of(), search("deploy notes"));
+    }
+
+    @Test
+    void titleMatchesRankAboveDescriptionMatches() {
+        index.rebuild(List.of(
+            task(1, "Groceries", "buy milk"),
+            task(2, "Milk the cows", null)));
+
+        assertEquals(List.of(2, 1), search("milk"));
+    }
+
+    @Test
+    void exactMatchesRankAbovePrefixMatches() {
+        index.rebuild(List.of(
+            task(1, "Testing plan", null),
+            task(2, "Test plan", null)));
+
+        assertEquals(List.of(2, 1), search("test"));
+    }
+
+    @Test
+    void equalScoresListNewestFirst() {
+        index.rebuild(List.of(
+            task(1, "Report", null),
+            task(2, "Report", null),
+            task(3, "Report", null)));
+
+        assertEquals(List.of(3, 2, 1), search("report"));
+    }
+
+    @Test
+    void emptyQueryReturnsEveryTask() {
+        index.rebuild(List.of(task(1, "a", null), task(2, "b", null)));
+
+        assertEquals(2, index.search("  ").size());
+    }
+
+    @Test
+    void updateReplacesTheIndexedText() {
+        index.add(task(1, "Old title", "old words"));
+        index.update(task(1, "New title", "fresh words"));
+
+        assertEquals(List.of(), search("old"));
+        assertEquals(List.of(), search("ld"));
+        assertEquals(List.of(1), search("fresh"));
+        assertEquals(List.of(1), search("resh"));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void previewKeepsTheFullDescriptionTokens() {
+        index.add(task(1, "Plan", "first line and a hidden keyword further down"));
+        Task preview = Task.fromSummary(1, "Plan renamed", "first line", false, "Medium", null, false, CREATED_AT, null);
+
+        index.update(preview);
+
+        assertEquals(List.of(1), search("keyword"));
+        assertEquals(List.of(1), search("renamed"));
+        assertEquals(List.of(), search("plan hidden title"));
+    }
+
+    @Test
+    void removedTasksAreNotFound() {
+        index.rebuild(List.of(
+            task(1, "Alpha", null),
+            task(2, "Alpha beta", null),
+            task(3, "Gamma", null)));
+
+        index.remove(1);
+        assertEquals(List.of(2), search("alpha"));
+        assertEquals(List.of(2), search("lph"));
+
+        index.removeIf(task -> task.getTitle().startsWith("G"));
+        assertEquals(List.of(), search("gamma"));
+        assertEquals(1, index.size());
+    }
+}
@@ -0,0 +1,97 @@
+package com.taskmanager.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesGetABucketEach() {
+        for (int value = 0; value < 8; value++) {
+            assertEquals(value, LatencyHistogram.bucket(value));
+            assertEquals(value, LatencyHistogram.upperBound(value));
+        }
+    }
+
+    @Test
+    void everyValueFallsWithinItsBucket() {
+        for (long value = 1; value > 0 && value < Long.MAX_VALUE / 2; value = value * 3 / 2 + 1) {
+            for (long v : new long[] { value - 1, value, value + 1 }) {
+                int bucket = LatencyHistogram.bucket(v);
+                assertTrue(LatencyHistogram.upperBound(bucket) >= v, "upper bound of " + v);
+                if (bucket > 0) {
+                    assertTrue(LatencyHistogram.upperBound(bucket - 1) < v, "previous bucket of " + v);
+                }
+            }
+        }
+    }
+
+    @Test
+    void bucketsAreContiguous() {
+        for (int bucket = 8; bucket < 60 * 8; bucket++) {
+            long first = LatencyHistogram.upperBound(bucket - 1) + 1;
+            assertEquals(bucket, LatencyHistogram.bucket(first));
+            assertEquals(bucket, LatencyHistogram.bucket(LatencyHistogram.upperBound(bucket)));
+        }
+    }
+
+    @Test
+    void upperBoundIsWithinAnEighthOfTheValue() {
+        for (long value = 8; value < TimeUnit.HOURS.toNanos(1); value = value * 5 / 4) {
+            long upper = LatencyHistogram.upperBound(LatencyHistogram.bucket(value));
+            assertTrue(upper <= value + value / 8, value + " reported as " + upper);
+        }
+    }
+
+    @Test
+    void largestValueHasABucket() {
+        int bucket = LatencyHistogram.bucket(Long.MAX_VALUE);
+        assertTrue(bucket < 64 * 8);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBound(bucket));
+    }
+
+    @Test
+    void percentilesAreCloseToTheRecordedLatencies() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis), millis % 100 == 0);
+        }
+
+        assertEquals(1000, histogram.getCount());
+        assertEquals(10, histogram.getErrorCount());
+        assertEquals(500.5, histogram.getMeanMillis(), 1e-9);
+        assertEquals(1000.0, histogram.getMaxMillis(), 1e-9);
+        assertEquals(500.0, histogram.getP50Millis(), 500.0 / 8);
+        assertTrue(histogram.getP50Millis() >= 500.0);
+        assertTrue(histogram.getP99Millis() >= 990.0);
+        assertTrue(histogram.getP99Millis() <= 1000.0, "capped at the slowest call");
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1000), histogram.percentileNanos(1.0));
+    }
+
+    @Test
+    void negativeLatenciesCountAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(-5, false);
+
+        assertEquals(1, histogram.getCount());
+        assertEquals(0, histogram.percentileNanos(0.5));
+        assertEquals(0.0, histogram.getMaxMillis());
+    }
+
+    @Test
+    void resetClearsEverything() {
+        LatencyHistogram histogram = new LatencyHistogram("test");
+        histogram.record(TimeUnit.MILLISECONDS.toNanos(3), true);
+        histogram.reset();
+
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getErrorCount());
+        assertEquals(0.0, histogram.getMeanMillis());
+        assertEquals(0.0, histogram.getMaxMillis());
+        assertEquals(0, histogram.percentileNanos(0.99));
+    }
+}